@@ -0,0 +1,52 @@
+-- Natural keys for the bulk catalog import (CatalogImportService upserts ON CONFLICT (name) / ON CONFLICT (sku)).
+--
+-- Run once against an existing PostgreSQL database before deploying the import, with the application stopped:
+--     psql -v ON_ERROR_STOP=1 -f catalog-natural-keys.sql <database>
+-- Hibernate's ddl-auto=update adds the sku column but cannot add uk_brand_name while duplicate brand names exist,
+-- and without that constraint every import fails. Idempotent: safe to run again.
+--
+-- Duplicate brands (same exact name) are merged into the lowest id: their products move to it, the other rows
+-- are deleted. Brands without a name get 'brand-<id>'.
+
+BEGIN;
+
+UPDATE brand SET name = 'brand-' || id WHERE name IS NULL OR name = '';
+
+CREATE TEMP TABLE brand_merge ON COMMIT DROP AS
+SELECT id AS duplicate_id, MIN(id) OVER (PARTITION BY name) AS kept_id
+FROM brand;
+
+DELETE FROM brand_merge WHERE duplicate_id = kept_id;
+
+UPDATE products p
+SET brand_id = m.kept_id
+FROM brand_merge m
+WHERE p.brand_id = m.duplicate_id;
+
+DO $$
+BEGIN
+    -- read model keyed by brand id; BrandSummaryService rebuilds it, only the merged rows have to go
+    IF to_regclass('brand_product_summary') IS NOT NULL THEN
+        DELETE FROM brand_product_summary s USING brand_merge m WHERE s.brand_id = m.duplicate_id;
+    END IF;
+END $$;
+
+DELETE FROM brand b USING brand_merge m WHERE b.id = m.duplicate_id;
+
+ALTER TABLE brand ALTER COLUMN name SET NOT NULL;
+ALTER TABLE products ADD COLUMN IF NOT EXISTS sku VARCHAR(64);
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_brand_name') THEN
+        ALTER TABLE brand ADD CONSTRAINT uk_brand_name UNIQUE (name);
+    END IF;
+    -- new column, every existing row is NULL, so nothing to deduplicate
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_products_sku') THEN
+        ALTER TABLE products ADD CONSTRAINT uk_products_sku UNIQUE (sku);
+    END IF;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_products_brand_id ON products (brand_id);
+
+COMMIT;
@@ -0,0 +1,60 @@
+package com.cosmetics.server;
+
+import com.cosmetics.server.audit.AuditLogger;
+import com.cosmetics.server.entity.ENUM.Role;
+import com.cosmetics.server.entity.auth.Users;
+import com.cosmetics.server.metrics.AuthMetrics;
+import com.cosmetics.server.resilience.RedisSubsystem;
+import com.cosmetics.server.resilience.ResilientRedisStore;
+import com.cosmetics.server.service.JwtConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Shared setup for the auth benchmarks. Mocks are stub-only so they do not record invocations.
+ */
+public final class BenchmarkFixtures {
+
+    public static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hs256";
+
+    private BenchmarkFixtures() {
+    }
+
+    public static Users user() {
+        return Users.builder()
+                .id(42L)
+                .username("benchmark.user@example.com")
+                .email("benchmark.user@example.com")
+                .roles(Set.of(Role.CUSTOMER))
+                .emailVerified(true)
+                .build();
+    }
+
+    public static JwtConfig jwtConfig() {
+        ResilientRedisStore redisStore = stub(ResilientRedisStore.class);
+        when(redisStore.hasKey(any(RedisSubsystem.class), anyString())).thenReturn(false);
+
+        JwtConfig jwtConfig = new JwtConfig(redisStore, authMetrics(), stub(AuditLogger.class));
+        ReflectionTestUtils.setField(jwtConfig, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtConfig, "accessTokenExpiration", 15 * 60 * 1000L);
+        ReflectionTestUtils.setField(jwtConfig, "refreshTokenExpiration", 7 * 24 * 60 * 60 * 1000L);
+        ReflectionTestUtils.invokeMethod(jwtConfig, "init");
+        return jwtConfig;
+    }
+
+    public static AuthMetrics authMetrics() {
+        return new AuthMetrics(new SimpleMeterRegistry(), ObservationRegistry.NOOP);
+    }
+
+    public static <T> T stub(Class<T> type) {
+        return Mockito.mock(type, Mockito.withSettings().stubOnly());
+    }
+}
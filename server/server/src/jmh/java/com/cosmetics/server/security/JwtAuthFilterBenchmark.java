@@ -0,0 +1,73 @@
+package com.cosmetics.server.security;
+
+import com.cosmetics.server.BenchmarkFixtures;
+import com.cosmetics.server.entity.auth.Users;
+import com.cosmetics.server.repository.UsersRepository;
+import com.cosmetics.server.service.JwtConfig;
+import com.cosmetics.server.service.PresenceService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Full per-request cost of the JWT filter: header parsing, token validation, user lookup
+ * (mocked repository) and security context population.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtAuthFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtAuthFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setup() {
+        JwtConfig jwtConfig = BenchmarkFixtures.jwtConfig();
+        Users user = BenchmarkFixtures.user();
+
+        UsersRepository usersRepository = BenchmarkFixtures.stub(UsersRepository.class);
+        when(usersRepository.findByUsername(anyString())).thenReturn(Optional.of(user));
+
+        filter = new JwtAuthFilter(jwtConfig, usersRepository, BenchmarkFixtures.stub(PresenceService.class),
+                BenchmarkFixtures.authMetrics());
+        authorization = "Bearer " + jwtConfig.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse authenticatedRequest() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader("Authorization", authorization);
+        request.addHeader("User-Agent", "jmh");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        SecurityContextHolder.clearContext();
+        filter.doFilterInternal(request, response, NO_OP_CHAIN);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse anonymousRequest() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        SecurityContextHolder.clearContext();
+        filter.doFilterInternal(request, response, NO_OP_CHAIN);
+        return response;
+    }
+}
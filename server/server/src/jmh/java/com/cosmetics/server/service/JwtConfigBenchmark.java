@@ -0,0 +1,55 @@
+package com.cosmetics.server.service;
+
+import com.cosmetics.server.BenchmarkFixtures;
+import com.cosmetics.server.entity.auth.Users;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtConfigBenchmark {
+
+    private JwtConfig jwtConfig;
+    private Users user;
+    private String accessToken;
+
+    @Setup
+    public void setup() {
+        jwtConfig = BenchmarkFixtures.jwtConfig();
+        user = BenchmarkFixtures.user();
+        accessToken = jwtConfig.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtConfig.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtConfig.generateRefreshToken(user);
+    }
+
+    @Benchmark
+    public String extractUserName() {
+        return jwtConfig.extractUserName(accessToken);
+    }
+
+    @Benchmark
+    public Boolean isTokenValid() {
+        return jwtConfig.isTokenValid(accessToken, user);
+    }
+
+    // what JwtAuthFilter does per request: one parse, then validation against the parsed claims
+    @Benchmark
+    public boolean filterPath() {
+        Claims claims = jwtConfig.parseClaims(accessToken);
+        return jwtConfig.isTokenValid(accessToken, claims, user);
+    }
+}
@@ -0,0 +1,43 @@
+package com.cosmetics.server.service;
+
+import com.cosmetics.server.BenchmarkFixtures;
+import com.cosmetics.server.audit.AuditLogger;
+import com.cosmetics.server.entity.ENUM.OtpPurposes;
+import com.cosmetics.server.resilience.ResilientRedisStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class OtpServiceBenchmark {
+
+    @Param({"Benchmark.User@Example.com", "+84 912 345 678"})
+    private String username;
+
+    private OtpService otpService;
+
+    @Setup
+    public void setup() {
+        otpService = new OtpService(
+                BenchmarkFixtures.stub(ResilientRedisStore.class),
+                BenchmarkFixtures.stub(EmailService.class),
+                BenchmarkFixtures.stub(SmsService.class),
+                BenchmarkFixtures.authMetrics(),
+                BenchmarkFixtures.stub(AuditLogger.class));
+    }
+
+    @Benchmark
+    public String buildOtpKey() {
+        return otpService.buildOtpKey(username, OtpPurposes.LOGIN);
+    }
+
+    @Benchmark
+    public String maskUsername() {
+        return otpService.maskUsername(username);
+    }
+}
@@ -0,0 +1,34 @@
+package com.cosmetics.server.validation;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EmailOrPhoneValidatorBenchmark {
+
+    @Param({"benchmark.user@example.com", "0912345678", "+84 912 345 678", "not-an-identifier"})
+    private String input;
+
+    private final EmailOrPhoneValidator validator = new EmailOrPhoneValidator();
+
+    @Benchmark
+    public boolean isValid() {
+        return validator.isValid(input, null);
+    }
+
+    @Benchmark
+    public String normalize() {
+        return EmailOrPhoneValidator.normalize(input);
+    }
+
+    @Benchmark
+    public String parseAndMask() {
+        return Identifier.parse(input).getMasked();
+    }
+}
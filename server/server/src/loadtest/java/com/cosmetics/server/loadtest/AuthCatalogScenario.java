@@ -0,0 +1,166 @@
+package com.cosmetics.server.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lettuce.core.api.sync.RedisCommands;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One virtual-user iteration: register, verify the registration OTP, password login, verify the login OTP,
+ * refresh, then browse the catalog (brands, product pages, product details) with the access token.
+ * With a {@link LocalJwksServer} the iteration also signs in with a Google ID token.
+ * <p>
+ * OTP codes are read back from Redis, where OtpService stores them. Usernames are Vietnamese mobile numbers, so
+ * codes go through the mock SMS provider rather than mail. Without Redis access (external target and no
+ * -Dloadtest.redis-url) the auth steps are skipped and the catalog is browsed anonymously.
+ */
+public class AuthCatalogScenario {
+
+    private static final String PASSWORD = "Loadt3st@Pass";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    // +8490 then 7 digits; a random start keeps repeated runs against one database from colliding
+    private static final AtomicLong PHONE_SEQUENCE = new AtomicLong(ThreadLocalRandom.current().nextLong(9_000_000));
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final RedisCommands<String, String> redis;
+    private final LocalJwksServer jwks;
+    private final LatencyRecorder recorder;
+    private final int browsePages;
+
+    public AuthCatalogScenario(HttpClient httpClient, String baseUrl, RedisCommands<String, String> redis,
+                               LocalJwksServer jwks, LatencyRecorder recorder, int browsePages) {
+        this.httpClient = httpClient;
+        this.baseUrl = baseUrl;
+        this.redis = redis;
+        this.jwks = jwks;
+        this.recorder = recorder;
+        this.browsePages = browsePages;
+    }
+
+    public void runIteration() throws IOException, InterruptedException {
+        String accessToken = null;
+        if (redis != null) {
+            accessToken = passwordLogin();
+            if (accessToken == null) {
+                return;
+            }
+        }
+        if (jwks != null) {
+            String subject = "lt-" + UUID.randomUUID();
+            String idToken = jwks.issueIdToken(subject, subject + "@loadtest.local", Duration.ofMinutes(5));
+            JsonNode login = post("google-idtoken", "/oauth2/google/idtoken", """
+                    {"idToken":"%s"}""".formatted(idToken), null);
+            if (login == null) {
+                return;
+            }
+            if (accessToken == null) {
+                accessToken = login.path("data").path("accessToken").asText(null);
+            }
+        }
+
+        get("browse-brands", "/api/brands", accessToken);
+        for (int i = 0; i < browsePages; i++) {
+            int page = ThreadLocalRandom.current().nextInt(10);
+            JsonNode products = get("browse-products", "/api/products?page=" + page + "&size=20", accessToken);
+            JsonNode content = products == null ? null : products.path("data").path("content");
+            if (content != null && content.size() > 0) {
+                long id = content.get(ThreadLocalRandom.current().nextInt(content.size())).path("id").asLong();
+                get("product-detail", "/api/products/" + id, accessToken);
+            }
+        }
+    }
+
+    /**
+     * Register, verify, login, verify, refresh; returns the refreshed access token, or null once a step fails.
+     */
+    private String passwordLogin() throws IOException, InterruptedException {
+        String username = "+8490" + String.format("%07d", PHONE_SEQUENCE.incrementAndGet() % 10_000_000);
+
+        if (post("register", "/auth/register", """
+                {"username":"%s","password":"%s","firstName":"Load","lastName":"Test"}"""
+                .formatted(username, PASSWORD), null) == null) {
+            return null;
+        }
+        String otp = readOtp(username, "REGISTER");
+        if (otp == null || post("register-verify", "/auth/register/verify-otp", """
+                {"username":"%s","otp":"%s"}""".formatted(username, otp), null) == null) {
+            return null;
+        }
+
+        if (post("login", "/auth/login", """
+                {"username":"%s","password":"%s"}""".formatted(username, PASSWORD), null) == null) {
+            return null;
+        }
+        otp = readOtp(username, "LOGIN");
+        JsonNode login = otp == null ? null : post("login-verify", "/auth/login/verify-otp", """
+                {"username":"%s","otp":"%s"}""".formatted(username, otp), null);
+        if (login == null) {
+            return null;
+        }
+
+        JsonNode refreshed = post("refresh", "/auth/token/refresh", """
+                {"refreshToken":"%s"}""".formatted(login.path("data").path("refreshToken").asText()), null);
+        return refreshed == null ? null : refreshed.path("data").path("accessToken").asText(null);
+    }
+
+    private String readOtp(String username, String purpose) throws IOException {
+        String value = redis.get("otp:" + username + ":" + purpose);
+        JsonNode otp = value == null ? null : objectMapper.readTree(value).findValue("otp");
+        if (otp == null) {
+            recorder.record("read-otp", 0, false);
+            return null;
+        }
+        return otp.asText();
+    }
+
+    private JsonNode post(String endpoint, String path, String body, String bearer)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        return send(endpoint, request, bearer);
+    }
+
+    private JsonNode get(String endpoint, String path, String bearer) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .GET();
+        return send(endpoint, request, bearer);
+    }
+
+    private JsonNode send(String endpoint, HttpRequest.Builder request, String bearer)
+            throws IOException, InterruptedException {
+        if (bearer != null) {
+            request.header("Authorization", "Bearer " + bearer);
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, false);
+            return null;
+        }
+        long latency = System.nanoTime() - start;
+
+        boolean success = response.statusCode() < 400;
+        recorder.record(endpoint, latency, success);
+        if (!success) {
+            return null;
+        }
+        return response.body().length == 0 ? objectMapper.createObjectNode() : objectMapper.readTree(response.body());
+    }
+}
@@ -0,0 +1,82 @@
+package com.cosmetics.server.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-endpoint latency histogram with geometric buckets (~5% resolution, 1 µs to ~2 min).
+ * Memory stays fixed no matter how many requests are recorded.
+ */
+public class LatencyRecorder {
+
+    private static final double LOG_RATIO = Math.log(1.05);
+    private static final int BUCKETS = 400;
+
+    private final Map<String, EndpointHistogram> endpoints = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long latencyNanos, boolean success) {
+        endpoints.computeIfAbsent(endpoint, k -> new EndpointHistogram()).record(latencyNanos / 1_000, success);
+    }
+
+    public Map<String, EndpointSummary> summarize(double elapsedSeconds) {
+        Map<String, EndpointSummary> summaries = new TreeMap<>();
+        endpoints.forEach((name, histogram) -> summaries.put(name, histogram.summarize(elapsedSeconds)));
+        return summaries;
+    }
+
+    public record EndpointSummary(long requests, long errors, double throughputPerSecond,
+                                  double p50Millis, double p99Millis, double maxMillis) {
+    }
+
+    private static final class EndpointHistogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong maxMicros = new AtomicLong();
+
+        private void record(long micros, boolean success) {
+            buckets.incrementAndGet(bucketOf(micros));
+            count.incrementAndGet();
+            if (!success) {
+                errors.incrementAndGet();
+            }
+            maxMicros.accumulateAndGet(micros, Math::max);
+        }
+
+        private EndpointSummary summarize(double elapsedSeconds) {
+            long total = count.get();
+            return new EndpointSummary(
+                    total,
+                    errors.get(),
+                    elapsedSeconds > 0 ? total / elapsedSeconds : 0,
+                    percentile(total, 0.50) / 1_000.0,
+                    percentile(total, 0.99) / 1_000.0,
+                    maxMicros.get() / 1_000.0);
+        }
+
+        private double percentile(long total, double quantile) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(total * quantile);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return Math.exp((i + 1) * LOG_RATIO);
+                }
+            }
+            return maxMicros.get();
+        }
+
+        private static int bucketOf(long micros) {
+            if (micros <= 1) {
+                return 0;
+            }
+            return (int) Math.min(BUCKETS - 1, Math.log(micros) / LOG_RATIO);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.cosmetics.server.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Load test settings, read from -Dloadtest.* system properties.
+ */
+public record LoadTestConfig(int concurrency,
+                             Duration duration,
+                             int browsePages,
+                             String baseUrl,
+                             String redisUrl,
+                             String reportPath) {
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.getInteger("loadtest.concurrency", 20),
+                Duration.parse(System.getProperty("loadtest.duration", "PT30S")),
+                Integer.getInteger("loadtest.browse-pages", 5),
+                System.getProperty("loadtest.base-url", ""),
+                System.getProperty("loadtest.redis-url", ""),
+                System.getProperty("loadtest.report", "target/loadtest-report.json"));
+    }
+
+    public boolean externalTarget() {
+        return baseUrl != null && !baseUrl.isBlank();
+    }
+}
@@ -0,0 +1,115 @@
+package com.cosmetics.server.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+
+import java.io.File;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the register / OTP / login / refresh / catalog browse flow ({@link AuthCatalogScenario}) at a fixed
+ * concurrency for a fixed duration and reports p50/p99 latency and throughput per endpoint.
+ */
+public class LoadTestRunner {
+
+    private static final int SEED_PRODUCTS = 5_000;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+        StandInEnvironment environment = config.externalTarget() ? null : StandInEnvironment.start(SEED_PRODUCTS);
+        String baseUrl = config.externalTarget() ? config.baseUrl() : environment.baseUrl();
+        String redisUrl = config.externalTarget() ? config.redisUrl() : environment.redisUrl();
+
+        // OTP codes are read straight from Redis; without it the auth steps are skipped
+        RedisClient redisClient = redisUrl.isBlank() ? null : RedisClient.create(redisUrl);
+        try (StatefulRedisConnection<String, String> redis = redisClient == null ? null : redisClient.connect()) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            AuthCatalogScenario scenario = new AuthCatalogScenario(newHttpClient(), baseUrl,
+                    redis == null ? null : redis.sync(), environment != null ? environment.jwks() : null,
+                    recorder, config.browsePages());
+            double elapsedSeconds = run(config, baseUrl, scenario, recorder);
+            report(config, elapsedSeconds, recorder);
+        } finally {
+            if (redisClient != null) {
+                redisClient.shutdown();
+            }
+            if (environment != null) {
+                environment.close();
+            }
+        }
+    }
+
+    private static HttpClient newHttpClient() {
+        return HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    private static double run(LoadTestConfig config, String baseUrl, AuthCatalogScenario scenario,
+                              LatencyRecorder recorder) throws InterruptedException {
+
+        long deadline = System.nanoTime() + config.duration().toNanos();
+        AtomicLong iterations = new AtomicLong();
+        long start = System.nanoTime();
+
+        System.out.printf("Load test: %d virtual users for %s against %s%n",
+                config.concurrency(), config.duration(), baseUrl);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.concurrency(); i++) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            scenario.runIteration();
+                            iterations.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (Exception e) {
+                            recorder.record("scenario-error", 0, false);
+                        }
+                    }
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(config.duration().toSeconds() + 120, TimeUnit.SECONDS);
+        }
+
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Completed %d iterations in %.1f s%n", iterations.get(), elapsedSeconds);
+        return elapsedSeconds;
+    }
+
+    private static void report(LoadTestConfig config, double elapsedSeconds, LatencyRecorder recorder)
+            throws Exception {
+        Map<String, LatencyRecorder.EndpointSummary> summary = recorder.summarize(elapsedSeconds);
+
+        System.out.printf("%-18s %10s %8s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        summary.forEach((endpoint, s) -> System.out.printf("%-18s %10d %8d %10.1f %10.2f %10.2f %10.2f%n",
+                endpoint, s.requests(), s.errors(), s.throughputPerSecond(), s.p50Millis(), s.p99Millis(),
+                s.maxMillis()));
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("concurrency", config.concurrency());
+        json.put("durationSeconds", elapsedSeconds);
+        json.put("endpoints", summary);
+
+        File reportFile = new File(config.reportPath());
+        if (reportFile.getParentFile() != null) {
+            reportFile.getParentFile().mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile, json);
+        System.out.println("Report written to " + reportFile.getAbsolutePath());
+    }
+}
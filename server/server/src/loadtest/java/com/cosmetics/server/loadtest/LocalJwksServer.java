@@ -0,0 +1,114 @@
+package com.cosmetics.server.loadtest;
+
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stand-in for Google's JWKS endpoint: serves one freshly generated RSA key on a local port and mints
+ * ID tokens signed with it, so social login can be exercised without network access.
+ */
+public class LocalJwksServer implements AutoCloseable {
+
+    public static final String KEY_ID = "local-test-key";
+    public static final String CLIENT_ID = "local-test-client.apps.googleusercontent.com";
+
+    private final HttpServer server;
+    private final KeyPair keyPair;
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    private LocalJwksServer(HttpServer server, KeyPair keyPair) {
+        this.server = server;
+        this.keyPair = keyPair;
+    }
+
+    public static LocalJwksServer start() throws IOException {
+        KeyPair keyPair;
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            keyPair = generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        LocalJwksServer jwks = new LocalJwksServer(server, keyPair);
+        server.createContext("/certs", exchange -> {
+            jwks.fetches.incrementAndGet();
+            byte[] body = jwks.jwksJson().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("Cache-Control", "public, max-age=3600");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return jwks;
+    }
+
+    public String jwksUri() {
+        return "http://localhost:" + server.getAddress().getPort() + "/certs";
+    }
+
+    /**
+     * How many times the server fetched the key set; should stay at one or two however many logins run.
+     */
+    public int fetchCount() {
+        return fetches.get();
+    }
+
+    public String issueIdToken(String subject, String email, Duration lifetime) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .setHeaderParam("kid", KEY_ID)
+                .setIssuer("https://accounts.google.com")
+                .setAudience(CLIENT_ID)
+                .setSubject(subject)
+                .claim("email", email)
+                .claim("email_verified", true)
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(lifetime)))
+                .signWith(keyPair.getPrivate(), SignatureAlgorithm.RS256)
+                .compact();
+    }
+
+    private String jwksJson() {
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        return "{\"keys\":[{\"kty\":\"RSA\",\"alg\":\"RS256\",\"use\":\"sig\",\"kid\":\"" + KEY_ID + "\","
+                + "\"n\":\"" + base64Url(publicKey.getModulus()) + "\","
+                + "\"e\":\"" + base64Url(publicKey.getPublicExponent()) + "\"}]}";
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        // drop the sign byte BigInteger adds for values with the top bit set
+        if (bytes.length > 1 && bytes[0] == 0) {
+            byte[] unsigned = new byte[bytes.length - 1];
+            System.arraycopy(bytes, 1, unsigned, 0, unsigned.length);
+            bytes = unsigned;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,130 @@
+package com.cosmetics.server.loadtest;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Smoke test for the native executable: starts it against the embedded Postgres/Redis stand-ins, waits for
+ * readiness, then runs one {@link AuthCatalogScenario} iteration: register, OTP verification, password login,
+ * login OTP, refresh, Google ID token login and catalog browse.
+ * Reports time to ready and resident memory; exits non-zero if any step fails.
+ */
+public class NativeSmokeRunner {
+
+    private static final Duration READY_TIMEOUT = Duration.ofSeconds(60);
+
+    public static void main(String[] args) throws Exception {
+        Path executable = Path.of(System.getProperty("native.executable", "target/server"));
+        if (!Files.isExecutable(executable)) {
+            System.err.println("Native executable not found at " + executable + ", build it with -Pnative native:compile");
+            System.exit(2);
+        }
+
+        int failures;
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             LocalJwksServer jwks = LocalJwksServer.start()) {
+            int redisPort = StandInEnvironment.freePort();
+            RedisServer redis = new RedisServer(redisPort);
+            redis.start();
+            try {
+                failures = run(executable, postgres, redisPort, jwks);
+            } finally {
+                redis.stop();
+            }
+        }
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    private static int run(Path executable, EmbeddedPostgres postgres, int redisPort, LocalJwksServer jwks)
+            throws Exception {
+        int serverPort = StandInEnvironment.freePort();
+        Map<String, Object> properties = StandInEnvironment.applicationProperties(postgres, redisPort, jwks);
+        properties.put("server.port", Integer.toString(serverPort));
+
+        List<String> command = new ArrayList<>();
+        command.add(executable.toAbsolutePath().toString());
+        properties.forEach((key, value) -> command.add("--" + key + "=" + value));
+
+        String baseUrl = "http://localhost:" + serverPort;
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        try {
+            if (!awaitReady(httpClient, baseUrl, process)) {
+                System.err.println("Native server did not become ready within " + READY_TIMEOUT);
+                return 1;
+            }
+            long readyMillis = (System.nanoTime() - start) / 1_000_000;
+
+            LatencyRecorder recorder = new LatencyRecorder();
+            RedisClient redisClient = RedisClient.create("redis://localhost:" + redisPort);
+            try (StatefulRedisConnection<String, String> redis = redisClient.connect()) {
+                new AuthCatalogScenario(httpClient, baseUrl, redis.sync(), jwks, recorder, 1).runIteration();
+            } finally {
+                redisClient.shutdown();
+            }
+
+            System.out.printf("Native server ready in %d ms, RSS %s%n", readyMillis, residentMemory(process.pid()));
+            int failures = 0;
+            for (Map.Entry<String, LatencyRecorder.EndpointSummary> entry : recorder.summarize(1).entrySet()) {
+                boolean ok = entry.getValue().errors() == 0;
+                System.out.printf("%-18s %s%n", entry.getKey(), ok ? "ok" : "FAILED");
+                if (!ok) {
+                    failures++;
+                }
+            }
+            return failures;
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static boolean awaitReady(HttpClient httpClient, String baseUrl, Process process)
+            throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/readyz"))
+                .timeout(Duration.ofSeconds(2))
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + READY_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline && process.isAlive()) {
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return true;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(50);
+        }
+        return false;
+    }
+
+    private static String residentMemory(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return line.substring("VmRSS:".length()).trim();
+                }
+            }
+        } catch (IOException e) {
+            // not Linux, or the process already exited
+        }
+        return "n/a";
+    }
+}
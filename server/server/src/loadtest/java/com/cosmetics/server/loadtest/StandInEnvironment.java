@@ -0,0 +1,125 @@
+package com.cosmetics.server.loadtest;
+
+import com.cosmetics.server.ServerApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Boots the server against an embedded PostgreSQL and an embedded Redis, both on random local ports.
+ * No Docker or Testcontainers needed.
+ */
+public class StandInEnvironment implements AutoCloseable {
+
+    private final EmbeddedPostgres postgres;
+    private final RedisServer redis;
+    private final int redisPort;
+    private final LocalJwksServer jwks;
+    private final ConfigurableApplicationContext context;
+
+    private StandInEnvironment(EmbeddedPostgres postgres, RedisServer redis, int redisPort,
+                               LocalJwksServer jwks, ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.redis = redis;
+        this.redisPort = redisPort;
+        this.jwks = jwks;
+        this.context = context;
+    }
+
+    public static StandInEnvironment start(int seedProducts) throws IOException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+
+        int redisPort = freePort();
+        RedisServer redis = new RedisServer(redisPort);
+        redis.start();
+
+        LocalJwksServer jwks = LocalJwksServer.start();
+
+        SpringApplication application = new SpringApplication(ServerApplication.class);
+        application.setDefaultProperties(applicationProperties(postgres, redisPort, jwks));
+        ConfigurableApplicationContext context = application.run();
+
+        StandInEnvironment environment = new StandInEnvironment(postgres, redis, redisPort, jwks, context);
+        environment.seedCatalog(seedProducts);
+        return environment;
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    public String redisUrl() {
+        return "redis://localhost:" + redisPort;
+    }
+
+    public LocalJwksServer jwks() {
+        return jwks;
+    }
+
+    static Map<String, Object> applicationProperties(EmbeddedPostgres postgres, int redisPort,
+                                                     LocalJwksServer jwks) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        properties.put("management.server.port", "0");
+        properties.put("spring.application.name", "cosmetics-loadtest");
+        properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+        properties.put("spring.datasource.username", "postgres");
+        properties.put("spring.datasource.password", "postgres");
+        properties.put("spring.jpa.hibernate.ddl-auto", "update");
+        properties.put("spring.data.redis.host", "localhost");
+        properties.put("spring.data.redis.port", Integer.toString(redisPort));
+        properties.put("spring.mail.host", "localhost");
+        properties.put("spring.mail.username", "loadtest@localhost");
+        properties.put("app.cors.allowed-origins", "*");
+        properties.put("app.jwtSecret", "loadtest-secret-key-that-is-long-enough-for-hs256");
+        properties.put("app.jwtExpirationMs", "900000");
+        properties.put("app.jwtRefreshExpirationMs", "604800000");
+        properties.put("app.sms.provider", "mock");
+        properties.put("app.sms.api-key", "mock");
+        properties.put("app.sms.api-secret", "mock");
+        properties.put("app.otp.expiration", "PT5M");
+        properties.put("app.otp.max-attempts", "5");
+        properties.put("app.otp.block-duration", "900000");
+        // every virtual user signs in with a fresh identity, so per-user limits never trip
+        properties.put("app.otp.resend-limit", "1000");
+        properties.put("app.otp.resend-window", "3600000");
+        properties.put("app.otp.cooldown", "0");
+        properties.put("app.oauth2.google.client-id", LocalJwksServer.CLIENT_ID);
+        properties.put("app.oauth2.google.jwks-uri", jwks.jwksUri());
+        return properties;
+    }
+
+    private void seedCatalog(int products) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO brand (name, description) VALUES ('Loadtest Brand', 'seeded') "
+                + "ON CONFLICT (name) DO NOTHING");
+        jdbcTemplate.update("""
+                INSERT INTO products (sku, description, price, quantity, image_url, brand_id)
+                SELECT 'LT-' || g, 'Seeded product ' || g, (g % 500) + 9.99, g % 100, NULL,
+                       (SELECT id FROM brand WHERE name = 'Loadtest Brand')
+                FROM generate_series(1, ?) AS g
+                ON CONFLICT (sku) DO NOTHING
+                """, products);
+    }
+
+    static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        jwks.close();
+        redis.stop();
+        postgres.close();
+    }
+}
@@ -0,0 +1,19 @@
+package com.cosmetics.server.DTO.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Where an auth request came from, recorded with the session it opens.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClientInfo {
+
+    private String ipAddress;
+    private String userAgent;
+}
@@ -1,4 +1,17 @@
 package com.cosmetics.server.DTO.request;
 
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
 public class GoogleIdTokenRequest {
+
+    @NotBlank(message = "ID token is required")
+    private String idToken;
 }
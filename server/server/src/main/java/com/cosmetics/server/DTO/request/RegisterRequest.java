@@ -1,6 +1,7 @@
 package com.cosmetics.server.DTO.request;
 
 import com.cosmetics.server.validation.EmailOrPhone;
+import com.cosmetics.server.validation.Identifier;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
@@ -21,7 +22,7 @@ public class RegisterRequest {
 
     @NotBlank(message = "Password is required")
     @Size(min = 8, max = 100, message = "Password must be at least 8 charaters")
-    @Pattern(regexp = "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@$!%*?&])[A-Za-z\\d@$!%*?&]",
+    @Pattern(regexp = "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@$!%*?&])[A-Za-z\\d@$!%*?&]+$",
             message = "Password must contain uppercase, lowercase, digit, and special character")
     private String password;
 
@@ -44,19 +45,6 @@ public class RegisterRequest {
     }
 
     public String getNormalizedUsername() {
-        if (username == null) return "";
-
-        String trimmed = username.trim();
-        if (isEmail()) {
-            return trimmed.toLowerCase();
-        } else {
-            // Phone normalization
-            String cleaned = trimmed.replaceAll("[^+\\d]", "");
-            // Convert Vietnamese phone format
-            if (cleaned.startsWith("0") && !cleaned.startsWith("+")) {
-                cleaned = "+84" + cleaned.substring(1);
-            }
-            return cleaned;
-        }
+        return Identifier.parse(username).getNormalized();
     }
 }
@@ -0,0 +1,34 @@
+package com.cosmetics.server.DTO.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminDashboardResponse {
+
+    private long productCount;
+    private long unitsInStock;
+    private BigDecimal stockValue;
+    private List<BrandStatsResponse> topBrands;
+
+    private int lowStockThreshold;
+    private List<LowStockProductResponse> lowStock;
+
+    private long newUsersLast24h;
+    private long newUsersLast7d;
+    private long newUsersLast30d;
+
+    // when each cached aggregate was last computed
+    private LocalDateTime brandStatsComputedAt;
+    private LocalDateTime lowStockComputedAt;
+    private LocalDateTime newUsersComputedAt;
+}
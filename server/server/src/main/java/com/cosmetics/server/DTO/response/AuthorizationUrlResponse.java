@@ -0,0 +1,17 @@
+package com.cosmetics.server.DTO.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AuthorizationUrlResponse {
+
+    private String provider;
+    private String authorizationUrl;
+    private String state;
+}
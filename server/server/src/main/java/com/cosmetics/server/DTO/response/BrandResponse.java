@@ -0,0 +1,23 @@
+package com.cosmetics.server.DTO.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BrandResponse {
+
+    private Long id;
+    private String name;
+    private String description;
+    private long productCount;
+    private long inStockCount;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+}
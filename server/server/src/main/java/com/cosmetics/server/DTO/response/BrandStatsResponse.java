@@ -0,0 +1,21 @@
+package com.cosmetics.server.DTO.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BrandStatsResponse {
+
+    private Long brandId;
+    private String brandName;
+    private long productCount;
+    private long unitsInStock;
+    private BigDecimal stockValue;
+}
@@ -0,0 +1,27 @@
+package com.cosmetics.server.DTO.response;
+
+import com.cosmetics.server.entity.ENUM.CatalogImportFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CatalogImportResponse {
+
+    private String importId;
+    private CatalogImportFormat format;
+    private String stage;
+    private long bytesRead;
+    private long rowsStaged;
+    private long brandsInserted;
+    private long productsUpserted;
+    private long rowsSkipped;
+    private LocalDateTime startedAt;
+    private long elapsedMs;
+}
@@ -0,0 +1,21 @@
+package com.cosmetics.server.DTO.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DevicePresenceResponse {
+
+    private String deviceId;
+    private String ipAddress;
+    private String userAgent;
+    private LocalDateTime firstSeenAt;
+    private LocalDateTime lastSeenAt;
+}
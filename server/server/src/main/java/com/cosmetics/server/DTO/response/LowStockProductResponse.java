@@ -0,0 +1,19 @@
+package com.cosmetics.server.DTO.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockProductResponse {
+
+    private Long productId;
+    private String sku;
+    private String description;
+    private int quantity;
+    private String brandName;
+}
@@ -0,0 +1,19 @@
+package com.cosmetics.server.DTO.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PresenceResponse {
+
+    private Long userId;
+    private boolean online;
+    private LocalDateTime lastSeenAt;
+}
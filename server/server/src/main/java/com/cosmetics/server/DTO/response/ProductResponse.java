@@ -0,0 +1,29 @@
+package com.cosmetics.server.DTO.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductResponse {
+
+    private Long id;
+    private String sku;
+    private String description;
+    private BigDecimal price;
+    private Integer quantity;
+    private String imageUrl;
+    private String imageHash;
+    // variant name -> JPEG URL; the same path with .webp when the server produces WebP
+    private Map<String, String> images;
+    private Long brandId;
+    private String brandName;
+    private Long version;
+}
@@ -0,0 +1,25 @@
+package com.cosmetics.server.DTO.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProfilingRecordingResponse {
+
+    private long id;
+    private String name;
+    private String state;
+    private Instant startedAt;
+    private Duration duration;
+    private Duration maxAge;
+    private long maxSizeBytes;
+    private long recordedBytes;
+}
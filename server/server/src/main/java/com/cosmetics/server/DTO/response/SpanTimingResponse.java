@@ -0,0 +1,20 @@
+package com.cosmetics.server.DTO.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SpanTimingResponse {
+
+    private String spanId;
+    private String parentSpanId;
+    private String name;
+    private double offsetMs;
+    private double durationMs;
+    private boolean error;
+}
@@ -0,0 +1,22 @@
+package com.cosmetics.server.DTO.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TraceBreakdownResponse {
+
+    private String traceId;
+    private String name;
+    private Instant startedAt;
+    private double durationMs;
+    private List<SpanTimingResponse> spans;
+}
@@ -0,0 +1,21 @@
+package com.cosmetics.server.audit;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+@Value
+@Builder
+public class AuditEvent {
+
+    Instant occurredAt;
+    AuditEventType type;
+    // normalized identifier or user id of the account the event is about
+    String subject;
+    // success, invalid, blocked ... (same vocabulary as the auth metrics)
+    String outcome;
+    String detail;
+    String ipAddress;
+    String userAgent;
+}
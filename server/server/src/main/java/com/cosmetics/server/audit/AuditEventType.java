@@ -0,0 +1,11 @@
+package com.cosmetics.server.audit;
+
+public enum AuditEventType {
+    LOGIN,
+    SOCIAL_LOGIN,
+    TOKEN_ISSUED,
+    TOKEN_REVOKED,
+    OTP_SENT,
+    OTP_VERIFY,
+    PASSWORD_CHANGED
+}
@@ -0,0 +1,210 @@
+package com.cosmetics.server.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous audit trail for auth events.
+ * <p>
+ * {@link #record} only builds the event and offers it to a lock-free ring buffer, so callers never wait
+ * on I/O. A single writer thread drains the ring in batches into the configured {@link AuditSink}. A failed
+ * batch is retried with backoff; after max-attempts it is set aside, and once a later batch gets written it is
+ * written in halves so an event the sink keeps rejecting is dead-lettered to the error log instead of stalling the
+ * pipeline. While the sink is down the ring fills up, and once it is full new events are dropped and counted
+ * (audit.events{result=dropped}), never blocking the login path. Events still in the ring are lost if the process
+ * is killed; a clean shutdown drains them.
+ */
+@Service
+@Slf4j
+public class AuditLogger {
+
+    private static final long MAX_BACKOFF_NANOS = Duration.ofSeconds(5).toNanos();
+
+    private final AuditSink sink;
+    private final AuditRingBuffer ring;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long idleParkNanos;
+    private final Counter accepted;
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter deadLettered;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AuditLogger(AuditSink sink,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.audit.buffer-size:8192}") int bufferSize,
+                       @Value("${app.audit.batch-size:500}") int batchSize,
+                       @Value("${app.audit.flush-interval:PT0.2S}") Duration flushInterval,
+                       @Value("${app.audit.max-attempts:5}") int maxAttempts) {
+        this.sink = sink;
+        this.ring = new AuditRingBuffer(bufferSize);
+        this.batchSize = batchSize;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.idleParkNanos = flushInterval.toNanos();
+
+        this.accepted = auditCounter(meterRegistry, "accepted");
+        this.dropped = auditCounter(meterRegistry, "dropped");
+        this.written = auditCounter(meterRegistry, "written");
+        this.deadLettered = auditCounter(meterRegistry, "dead-lettered");
+        Gauge.builder("audit.buffer.size", ring, AuditRingBuffer::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+
+        this.writer = Thread.ofPlatform().name("audit-writer").daemon().unstarted(this::writeLoop);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.start();
+    }
+
+    public void record(AuditEventType type, String subject, String outcome) {
+        record(type, subject, outcome, null);
+    }
+
+    public void record(AuditEventType type, String subject, String outcome, String detail) {
+        AuditEvent.AuditEventBuilder event = AuditEvent.builder()
+                .occurredAt(Instant.now())
+                .type(type)
+                .subject(subject)
+                .outcome(outcome)
+                .detail(detail);
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            event.ipAddress(clientIp(request)).userAgent(request.getHeader("User-Agent"));
+        }
+
+        if (ring.offer(event.build())) {
+            accepted.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(Duration.ofSeconds(10));
+    }
+
+    private void writeLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        // a batch that kept failing, set aside until a write of other events shows whether it or the sink is at fault
+        List<AuditEvent> suspect = new ArrayList<>();
+        long backoff = idleParkNanos;
+        int attempts = 0;
+
+        while (running || ring.size() > 0 || !batch.isEmpty() || !suspect.isEmpty()) {
+            if (batch.isEmpty() && ring.drainTo(batch, batchSize) == 0) {
+                if (!suspect.isEmpty()) {
+                    // nothing else to write: retry it whole, one call per backoff step
+                    batch.addAll(suspect);
+                    suspect.clear();
+                    continue;
+                }
+                if (!running) {
+                    break;
+                }
+                LockSupport.parkNanos(idleParkNanos);
+                continue;
+            }
+
+            try {
+                sink.write(batch);
+                written.increment(batch.size());
+                batch.clear();
+                backoff = idleParkNanos;
+                attempts = 0;
+                if (!suspect.isEmpty()) {
+                    isolateFailures(suspect);
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    log.error("Dropping {} audit events on shutdown, sink unavailable", batch.size(), e);
+                    dropped.increment(batch.size());
+                    batch.clear();
+                    continue;
+                }
+                if (++attempts >= maxAttempts && suspect.isEmpty()) {
+                    suspect.addAll(batch);
+                    batch.clear();
+                    attempts = 0;
+                    continue;
+                }
+                log.warn("Audit batch of {} events failed, retrying: {}", batch.size(), e.getMessage());
+                LockSupport.parkNanos(backoff);
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+                ring.drainTo(batch, batchSize - batch.size());
+            }
+        }
+    }
+
+    /**
+     * Writes a suspect batch in halves down to single events, once another write has just shown the sink is up.
+     * Events that still fail on their own are dead-lettered. While the sink is down no batch gets split, so an
+     * outage costs one call per retry rather than one per event.
+     */
+    private void isolateFailures(List<AuditEvent> batch) {
+        List<AuditEvent> failed = new ArrayList<>();
+        written.increment(writeSplitting(batch, failed));
+        for (AuditEvent event : failed) {
+            // the log line is the dead letter: enough to replay the event by hand
+            log.error("Dead-lettered audit event {} subject={} outcome={} at {}", event.getType(), event.getSubject(),
+                    event.getOutcome(), event.getOccurredAt());
+        }
+        deadLettered.increment(failed.size());
+        batch.clear();
+    }
+
+    private int writeSplitting(List<AuditEvent> events, List<AuditEvent> failed) {
+        try {
+            sink.write(events);
+            return events.size();
+        } catch (Exception e) {
+            if (events.size() == 1) {
+                failed.add(events.get(0));
+                return 0;
+            }
+            int middle = events.size() / 2;
+            return writeSplitting(events.subList(0, middle), failed)
+                    + writeSplitting(events.subList(middle, events.size()), failed);
+        }
+    }
+
+    private static Counter auditCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("audit.events")
+                .description("Audit events by pipeline stage")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String clientIp(HttpServletRequest request) {
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded == null) {
+            return request.getRemoteAddr();
+        }
+        int comma = forwarded.indexOf(',');
+        return (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+    }
+}
@@ -0,0 +1,65 @@
+package com.cosmetics.server.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded multi-producer, single-consumer ring buffer. Producers claim a slot with one CAS and never block;
+ * when the ring is full {@link #offer} returns false and the caller decides what to drop.
+ */
+class AuditRingBuffer {
+
+    private final AtomicReferenceArray<AuditEvent> slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    AuditRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    boolean offer(AuditEvent event) {
+        long sequence;
+        do {
+            sequence = head.get();
+            if (sequence - tail.get() > mask) {
+                return false;
+            }
+        } while (!head.compareAndSet(sequence, sequence + 1));
+
+        slots.setRelease((int) sequence & mask, event);
+        return true;
+    }
+
+    /**
+     * Consumer side only. Stops at the first claimed-but-not-yet-published slot.
+     */
+    int drainTo(List<AuditEvent> target, int max) {
+        long sequence = tail.get();
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) sequence & mask;
+            AuditEvent event = slots.getAcquire(index);
+            if (event == null) {
+                break;
+            }
+            slots.setPlain(index, null);
+            target.add(event);
+            sequence++;
+            drained++;
+        }
+        tail.set(sequence);
+        return drained;
+    }
+
+    int size() {
+        return (int) (head.get() - tail.get());
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,11 @@
+package com.cosmetics.server.audit;
+
+import java.util.List;
+
+/**
+ * Durable destination for audit batches. Called from the single audit writer thread only.
+ */
+public interface AuditSink {
+
+    void write(List<AuditEvent> batch) throws Exception;
+}
@@ -0,0 +1,71 @@
+package com.cosmetics.server.audit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Append-only NDJSON audit file. Each batch is written with one channel write and forced to disk
+ * before the writer moves on, so an acknowledged batch survives a crash.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.audit.sink", havingValue = "file")
+public class FileAuditSink implements AuditSink {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+    private final FileChannel channel;
+
+    public FileAuditSink(@Value("${app.audit.file:audit/auth-audit.ndjson}") String file) throws IOException {
+        Path path = Path.of(file);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void write(List<AuditEvent> batch) throws IOException {
+        buffer.reset();
+        try (JsonGenerator generator = jsonFactory.createGenerator(buffer)) {
+            generator.setRootValueSeparator(null);
+            for (AuditEvent event : batch) {
+                generator.writeStartObject();
+                generator.writeStringField("occurredAt", event.getOccurredAt().toString());
+                generator.writeStringField("type", event.getType().name());
+                generator.writeStringField("subject", event.getSubject());
+                generator.writeStringField("outcome", event.getOutcome());
+                generator.writeStringField("detail", event.getDetail());
+                generator.writeStringField("ipAddress", event.getIpAddress());
+                generator.writeStringField("userAgent", event.getUserAgent());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        }
+
+        ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        channel.force(false);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,207 @@
+package com.cosmetics.server.cache;
+
+import com.cosmetics.server.entity.Brand;
+import com.cosmetics.server.entity.Product;
+import com.cosmetics.server.event.CatalogChangedEvent;
+import com.cosmetics.server.resilience.RedisGuard;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Keeps the per-instance Hibernate second-level caches (Ehcache over JCache) consistent across the cluster.
+ * <p>
+ * Hibernate already maintains the local regions on every write. After a transaction commits, each write to a
+ * cached entity or collection is published on a Redis channel, and the other instances evict that entry plus
+ * their query regions. Bulk catalog writes that bypass Hibernate (the JDBC import) evict the product and brand
+ * regions everywhere. Messages lost while Redis is down are bounded by the region TTLs in ehcache.xml.
+ * <p>
+ * Message format: {@code node|E|entityName|id}, {@code node|C|collectionRole|ownerId} or {@code node|R|entityName}.
+ * Identifiers are Long throughout the schema.
+ */
+@Component
+@Slf4j
+public class SecondLevelCacheInvalidator implements MessageListener,
+        PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionRecreateEventListener, PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    private static final char ENTITY = 'E';
+    private static final char COLLECTION = 'C';
+    private static final char REGION = 'R';
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisGuard redisGuard;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ChannelTopic topic;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private SessionFactoryImplementor sessionFactory;
+
+    public SecondLevelCacheInvalidator(EntityManagerFactory entityManagerFactory,
+                                       StringRedisTemplate redisTemplate,
+                                       RedisGuard redisGuard,
+                                       RedisMessageListenerContainer listenerContainer,
+                                       @Value("${app.l2cache.channel:l2cache:invalidate}") String channel) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.redisTemplate = redisTemplate;
+        this.redisGuard = redisGuard;
+        this.listenerContainer = listenerContainer;
+        this.topic = new ChannelTopic(channel);
+    }
+
+    @PostConstruct
+    public void init() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+        listenerContainer.addMessageListener(this, topic);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        entityChanged(event.getSession(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        entityChanged(event.getSession(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        entityChanged(event.getSession(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        collectionChanged(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        collectionChanged(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        collectionChanged(event);
+    }
+
+    /**
+     * The JDBC catalog import writes products and brands without Hibernate, so no entity events fire.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!event.wholeCatalog()) {
+            return;
+        }
+        for (String entityName : new String[]{Product.class.getName(), Brand.class.getName()}) {
+            evictRegion(entityName);
+            publish(REGION + "|" + entityName);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|");
+        if (parts.length < 3 || nodeId.equals(parts[0]) || parts[1].length() != 1) {
+            return;
+        }
+        try {
+            Cache cache = sessionFactory.getCache();
+            switch (parts[1].charAt(0)) {
+                case ENTITY -> {
+                    cache.evictEntityData(parts[2], Long.valueOf(parts[3]));
+                    cache.evictQueryRegions();
+                }
+                case COLLECTION -> cache.evictCollectionData(parts[2], Long.valueOf(parts[3]));
+                case REGION -> evictRegion(parts[2]);
+                default -> log.debug("Unknown cache invalidation message type {}", parts[1]);
+            }
+        } catch (RuntimeException e) {
+            // unknown entity/role (e.g. during a rolling deploy) or a malformed id: the region TTL covers it
+            log.warn("Failed to apply cache invalidation {}: {}", parts[1], e.getMessage());
+        }
+    }
+
+    private void entityChanged(EventSource session, EntityPersister persister, Object id) {
+        if (persister.canWriteToCache() && id != null) {
+            afterCommit(session, ENTITY + "|" + persister.getEntityName() + "|" + id);
+        }
+    }
+
+    private void collectionChanged(AbstractCollectionEvent event) {
+        String role = event.getCollection().getRole();
+        Object ownerId = event.getAffectedOwnerIdOrNull();
+        if (role != null && ownerId != null
+                && sessionFactory.getMappingMetamodel().getCollectionDescriptor(role).hasCache()) {
+            afterCommit(event.getSession(), COLLECTION + "|" + role + "|" + ownerId);
+        }
+    }
+
+    // other instances must not re-read the row before it is committed, so nothing is sent for rolled back work
+    private void afterCommit(EventSource session, String invalidation) {
+        session.getActionQueue().registerProcess((success, s) -> {
+            if (success) {
+                publish(invalidation);
+            }
+        });
+    }
+
+    private void evictRegion(String entityName) {
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(entityName);
+        cache.evictQueryRegions();
+    }
+
+    private void publish(String invalidation) {
+        boolean sent = redisGuard.call(() -> {
+            redisTemplate.convertAndSend(topic.getTopic(), nodeId + "|" + invalidation);
+            return true;
+        }, () -> false);
+        if (!sent) {
+            log.debug("Cache invalidation not published, other instances rely on region TTLs");
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.cosmetics.server.config;
+
+import com.cosmetics.server.entity.ENUM.AuthProvider;
+import com.cosmetics.server.entity.ENUM.OtpPurposes;
+import com.cosmetics.server.entity.ENUM.Role;
+import com.cosmetics.server.entity.auth.Users;
+import com.cosmetics.server.profiling.CacheAccessEvent;
+import com.cosmetics.server.profiling.CatalogQueryEvent;
+import com.cosmetics.server.profiling.JwtValidationEvent;
+import com.cosmetics.server.profiling.OtpVerifyEvent;
+import com.cosmetics.server.service.OtpData;
+import com.cosmetics.server.service.ResendTracker;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the native image (mvn -Pnative native:compile).
+ * Spring's AOT processing covers beans, controllers and JPA entities; this adds what it cannot see.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.ServerRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class ServerRuntimeHints implements RuntimeHintsRegistrar {
+
+        /**
+         * JJWT 0.11 loads its implementation classes by name (Jwts, CompressionCodecs) and its Jackson
+         * serializer through ServiceLoader.
+         */
+        private static final List<String> JJWT_IMPLEMENTATION = List.of(
+                "io.jsonwebtoken.impl.DefaultJwtBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParser",
+                "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+                "io.jsonwebtoken.impl.DefaultClaims",
+                "io.jsonwebtoken.impl.DefaultHeader",
+                "io.jsonwebtoken.impl.DefaultJwsHeader",
+                "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+                "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+                "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+                "io.jsonwebtoken.jackson.io.JacksonSerializer",
+                "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+        private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (String type : JJWT_IMPLEMENTATION) {
+                hints.reflection().registerType(TypeReference.of(type),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.*");
+
+            // values written by the default-typing Redis serializer carry their class name and are
+            // instantiated by name on read; claims carry roles and provider enums through JJWT's Jackson
+            bindingRegistrar.registerReflectionHints(hints.reflection(),
+                    OtpData.class, ResendTracker.class, Users.class,
+                    OtpPurposes.class, Role.class, AuthProvider.class);
+
+            // custom JFR events are instantiated and inspected reflectively by the recorder
+            for (Class<?> event : List.of(OtpVerifyEvent.class, JwtValidationEvent.class,
+                    CatalogQueryEvent.class, CacheAccessEvent.class)) {
+                hints.reflection().registerType(event, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.DECLARED_FIELDS);
+            }
+
+            hints.resources().registerPattern("templates/*.html");
+            // second-level cache regions, loaded by the JCache provider from the classpath
+            hints.resources().registerPattern("ehcache.xml");
+        }
+    }
+}
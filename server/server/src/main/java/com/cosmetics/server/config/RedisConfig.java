@@ -1,32 +1,61 @@
 package com.cosmetics.server.config;
 
+import com.cosmetics.server.metrics.TimedRedisTemplate;
+import com.cosmetics.server.metrics.TimedStringRedisTemplate;
+import com.cosmetics.server.profiling.ProfilingCacheManager;
+import com.cosmetics.server.resilience.CircuitBreakingCacheManager;
+import com.cosmetics.server.resilience.RedisGuard;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.tracing.MicrometerTracing;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.interceptor.LoggingCacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.RedisConfiguration;
 import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisSentinelConfiguration;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.util.StringUtils;
 
 import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
 
 @Configuration
 @EnableCaching
-public class RedisConfig {
+public class RedisConfig implements CachingConfigurer {
 
     @Value("${spring.data.redis.host:localhost}")
     private String redisHost;
@@ -40,23 +69,129 @@ public class RedisConfig {
     @Value("${spring.data.redis.database:0}")
     private int redisDatabase;
 
+    @Value("${spring.data.redis.sentinel.master:}")
+    private String sentinelMaster;
+
+    @Value("${spring.data.redis.sentinel.nodes:}")
+    private List<String> sentinelNodes;
+
+    @Value("${spring.data.redis.cluster.nodes:}")
+    private List<String> clusterNodes;
+
+    @Value("${spring.data.redis.cluster.max-redirects:3}")
+    private int clusterMaxRedirects;
+
+    @Value("${spring.data.redis.timeout:PT2S}")
+    private Duration commandTimeout;
+
+    @Value("${spring.data.redis.connect-timeout:PT2S}")
+    private Duration connectTimeout;
+
+    // pipelined commands are written to the socket in batches of this size instead of one flush per command
+    @Value("${app.redis.pipeline-flush-threshold:64}")
+    private int pipelineFlushThreshold;
+
+    /**
+     * Lettuce resources with Micrometer tracing, every Redis command becomes a child span of the current request
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ClientResources lettuceClientResources(ObservationRegistry observationRegistry) {
+        return ClientResources.builder()
+                .tracing(new MicrometerTracing(observationRegistry, "redis"))
+                .build();
+    }
+
     /**
-     * Connection factory (Lettuce)
+     * Main connection factory (Lettuce). All non-blocking commands share one native connection,
+     * which Lettuce multiplexes; no per-call validation PING. Writes and reads go to the master.
      */
     @Bean
-    public RedisConnectionFactory redisConnectionFactory() {
+    @Primary
+    public RedisConnectionFactory redisConnectionFactory(ClientResources lettuceClientResources) {
+        LettuceClientConfiguration clientConfig = LettuceClientConfiguration.builder()
+                .clientResources(lettuceClientResources)
+                .clientOptions(clientOptions(commandTimeout))
+                .commandTimeout(commandTimeout)
+                .build();
+
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(redisConfiguration(), clientConfig);
+        factory.setShareNativeConnection(true);
+        factory.setPipeliningFlushPolicy(LettuceConnection.PipeliningFlushPolicy.buffered(pipelineFlushThreshold));
+        return factory;
+    }
+
+    /**
+     * Factory for the Spring cache: reads are served by replicas when available, writes are still routed to the master.
+     */
+    @Bean("replicaRedisConnectionFactory")
+    public RedisConnectionFactory replicaRedisConnectionFactory(ClientResources lettuceClientResources) {
+        LettuceClientConfiguration clientConfig = LettuceClientConfiguration.builder()
+                .clientResources(lettuceClientResources)
+                .clientOptions(clientOptions(commandTimeout))
+                .commandTimeout(commandTimeout)
+                .readFrom(ReadFrom.REPLICA_PREFERRED)
+                .build();
+
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(redisConfiguration(), clientConfig);
+        factory.setShareNativeConnection(true);
+        return factory;
+    }
+
+    /**
+     * Cluster when spring.data.redis.cluster.nodes is set, sentinel when spring.data.redis.sentinel.master is set,
+     * standalone otherwise.
+     */
+    private RedisConfiguration redisConfiguration() {
+        RedisPassword password = StringUtils.hasText(redisPassword) ? RedisPassword.of(redisPassword) : RedisPassword.none();
+
+        if (!clusterNodes.isEmpty()) {
+            RedisClusterConfiguration config = new RedisClusterConfiguration(clusterNodes);
+            config.setMaxRedirects(clusterMaxRedirects);
+            config.setPassword(password);
+            return config;
+        }
+
+        if (StringUtils.hasText(sentinelMaster)) {
+            RedisSentinelConfiguration config = new RedisSentinelConfiguration(sentinelMaster, new HashSet<>(sentinelNodes));
+            config.setDatabase(redisDatabase);
+            config.setPassword(password);
+            return config;
+        }
+
         RedisStandaloneConfiguration config = new RedisStandaloneConfiguration();
         config.setHostName(redisHost);
         config.setPort(redisPort);
         config.setDatabase(redisDatabase);
+        config.setPassword(password);
+        return config;
+    }
+
+    private ClientOptions clientOptions(Duration timeout) {
+        SocketOptions socketOptions = SocketOptions.builder()
+                .connectTimeout(connectTimeout)
+                .keepAlive(true)
+                .build();
+
+        if (!clusterNodes.isEmpty()) {
+            // follow failovers and resharding without a restart
+            ClusterTopologyRefreshOptions topologyRefresh = ClusterTopologyRefreshOptions.builder()
+                    .enablePeriodicRefresh(Duration.ofSeconds(30))
+                    .enableAllAdaptiveRefreshTriggers()
+                    .build();
 
-        if (redisPassword != null && !redisPassword.trim().isEmpty()) {
-            config.setPassword(RedisPassword.of(redisPassword));
+            return ClusterClientOptions.builder()
+                    .socketOptions(socketOptions)
+                    .timeoutOptions(TimeoutOptions.enabled(timeout))
+                    .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                    .topologyRefreshOptions(topologyRefresh)
+                    .build();
         }
 
-        LettuceConnectionFactory factory = new LettuceConnectionFactory(config);
-        factory.setValidateConnection(true);
-        return factory;
+        return ClientOptions.builder()
+                .socketOptions(socketOptions)
+                .timeoutOptions(TimeoutOptions.enabled(timeout))
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .build();
     }
 
     /**
@@ -84,8 +219,9 @@ public class RedisConfig {
     @Bean
     @Primary
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory factory,
-                                                       GenericJackson2JsonRedisSerializer genericSerializer) {
-        RedisTemplate<String, Object> template = new RedisTemplate<>();
+                                                       GenericJackson2JsonRedisSerializer genericSerializer,
+                                                       MeterRegistry meterRegistry) {
+        RedisTemplate<String, Object> template = new TimedRedisTemplate<>(meterRegistry, "redisTemplate");
         template.setConnectionFactory(factory);
 
         // Key serializer
@@ -103,11 +239,14 @@ public class RedisConfig {
     }
 
     /**
-     * StringRedisTemplate cho các thao tác string đơn giản (counters, INCR ...)
+     * StringRedisTemplate cho các thao tác string đơn giản (counters, INCR ...).
+     * Primary because most services inject StringRedisTemplate by type; the templates below are separate beans
+     * so each subsystem's commands are timed under their own tag.
      */
     @Bean
-    public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory factory) {
-        StringRedisTemplate template = new StringRedisTemplate();
+    @Primary
+    public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory factory, MeterRegistry meterRegistry) {
+        StringRedisTemplate template = new TimedStringRedisTemplate(meterRegistry, "stringRedisTemplate");
         template.setConnectionFactory(factory);
         return template;
     }
@@ -116,32 +255,22 @@ public class RedisConfig {
      * RedisTemplate riêng cho OTP operations (string key + string value)
      */
     @Bean("otpRedisTemplate")
-    public RedisTemplate<String, String> otpRedisTemplate(RedisConnectionFactory factory) {
-        RedisTemplate<String, String> template = new RedisTemplate<>();
-        template.setConnectionFactory(factory);
-
-        StringRedisSerializer stringSerializer = new StringRedisSerializer();
-        template.setKeySerializer(stringSerializer);
-        template.setValueSerializer(stringSerializer);
-        template.setHashKeySerializer(stringSerializer);
-        template.setHashValueSerializer(stringSerializer);
-
-        template.afterPropertiesSet();
-        return template;
+    public RedisTemplate<String, String> otpRedisTemplate(RedisConnectionFactory factory, MeterRegistry meterRegistry) {
+        return stringTemplate(new TimedRedisTemplate<>(meterRegistry, "otpRedisTemplate"), factory);
     }
 
     /**
-     * RedisTemplate cho Rate Limiting (key string, value long)
+     * RedisTemplate cho Rate Limiting (key string, value long). Counters are stored as decimal strings so INCR
+     * and reads agree.
      */
     @Bean("rateLimitRedisTemplate")
-    public RedisTemplate<String, Long> rateLimitRedisTemplate(RedisConnectionFactory factory) {
-        RedisTemplate<String, Long> template = new RedisTemplate<>();
+    public RedisTemplate<String, Long> rateLimitRedisTemplate(RedisConnectionFactory factory, MeterRegistry meterRegistry) {
+        RedisTemplate<String, Long> template = new TimedRedisTemplate<>(meterRegistry, "rateLimitRedisTemplate");
         template.setConnectionFactory(factory);
 
         StringRedisSerializer stringSerializer = new StringRedisSerializer();
         template.setKeySerializer(stringSerializer);
-        // chúng ta không dùng JSON serializer cho giá trị Long — để mặc định (JDK serialization) hoặc có thể custom
-        template.setValueSerializer(stringSerializer);
+        template.setValueSerializer(new GenericToStringSerializer<>(Long.class));
         template.setHashKeySerializer(stringSerializer);
         template.setHashValueSerializer(stringSerializer);
 
@@ -153,24 +282,43 @@ public class RedisConfig {
      * RedisTemplate cho Token Blacklist (store jti -> reason or timestamp)
      */
     @Bean("tokenBlacklistRedisTemplate")
-    public RedisTemplate<String, String> tokenBlacklistRedisTemplate(RedisConnectionFactory factory) {
-        RedisTemplate<String, String> template = new RedisTemplate<>();
+    public RedisTemplate<String, String> tokenBlacklistRedisTemplate(RedisConnectionFactory factory,
+                                                                     MeterRegistry meterRegistry) {
+        return stringTemplate(new TimedRedisTemplate<>(meterRegistry, "tokenBlacklistRedisTemplate"), factory);
+    }
+
+    private static RedisTemplate<String, String> stringTemplate(RedisTemplate<String, String> template,
+                                                                RedisConnectionFactory factory) {
         template.setConnectionFactory(factory);
 
         StringRedisSerializer stringSerializer = new StringRedisSerializer();
         template.setKeySerializer(stringSerializer);
         template.setValueSerializer(stringSerializer);
+        template.setHashKeySerializer(stringSerializer);
+        template.setHashValueSerializer(stringSerializer);
 
         template.afterPropertiesSet();
         return template;
     }
 
+    /**
+     * Pub/sub subscriptions (e.g. second-level cache invalidation). The container re-subscribes after a
+     * connection loss on its own.
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory factory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        return container;
+    }
+
     /**
      * Cache Manager cho Spring Cache
      */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory,
-                                     GenericJackson2JsonRedisSerializer genericSerializer) {
+    public CacheManager cacheManager(@Qualifier("replicaRedisConnectionFactory") RedisConnectionFactory redisConnectionFactory,
+                                     GenericJackson2JsonRedisSerializer genericSerializer,
+                                     RedisGuard redisGuard) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(10)) // Default TTL 10 phút
                 .serializeKeysWith(org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair
@@ -179,12 +327,23 @@ public class RedisConfig {
                         .fromSerializer(genericSerializer))
                 .disableCachingNullValues();
 
-        return RedisCacheManager.builder(redisConnectionFactory)
+        // JFR events for hits/misses; the circuit breaker turns a Redis outage into cache misses
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory)
                 .cacheDefaults(config)
                 .withCacheConfiguration("otp", config.entryTtl(Duration.ofMinutes(5)))
                 .withCacheConfiguration("rate-limit", config.entryTtl(Duration.ofHours(24)))
                 .withCacheConfiguration("user-session", config.entryTtl(Duration.ofMinutes(15)))
                 .withCacheConfiguration("refresh-tokens", config.entryTtl(Duration.ofDays(7)))
                 .build();
+        return new ProfilingCacheManager(new CircuitBreakingCacheManager(redisCacheManager, redisGuard));
+    }
+
+    /**
+     * Anything the circuit breaker does not absorb (e.g. a value that no longer deserializes) is logged
+     * and treated as a miss rather than failing the request.
+     */
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new LoggingCacheErrorHandler();
     }
 }
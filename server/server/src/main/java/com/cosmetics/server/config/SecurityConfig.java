@@ -1,5 +1,8 @@
 package com.cosmetics.server.config;
 
+import com.cosmetics.server.security.ObservedPasswordEncoder;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.apache.catalina.filters.CorsFilter;
 import org.apache.catalina.filters.RateLimitFilter;
@@ -7,6 +10,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -22,6 +26,7 @@ import org.springframework.security.web.access.AccessDeniedHandler;
 import org.springframework.security.web.authentication.AuthenticationFailureHandler;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -43,9 +48,12 @@ public class SecurityConfig {
     @Value("${app.cors.allowed-origins}")
     private List<String> allowedOrigins;
 
+    @Value("${app.management.allowed-networks:127.0.0.1/32,::1/128}")
+    private List<String> managementNetworks;
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(ObservationRegistry observationRegistry) {
+        return new ObservedPasswordEncoder(new BCryptPasswordEncoder(12), observationRegistry);
     }
 
     @Bean
@@ -62,6 +70,14 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/auth/**", "/oauth/**", "/public/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/oauth2/google/idtoken").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/oauth2/callback/**", "/oauth2/authorization-url/**").permitAll()
+                        // probes on the application port (/livez, /readyz) and the management port
+                        .requestMatchers("/livez", "/readyz", "/actuator/health/**").permitAll()
+                        // actuator runs on management.server.port; metrics only for scrapers on allowed networks
+                        .requestMatchers("/actuator/prometheus").access((authentication, context) ->
+                                new AuthorizationDecision(fromManagementNetwork(context.getRequest())))
+                        .requestMatchers("/actuator/startup").hasRole("ADMIN")
                         .requestMatchers("/admin/**").hasRole("ADMIN")
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/users/me").hasAnyRole("ADMIN", "CUSTOMER")
@@ -70,6 +86,8 @@ public class SecurityConfig {
 
                         // Product endpoints (public read, protected write)
                         .requestMatchers(HttpMethod.GET, "/api/products/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/brands/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/images/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/products/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/products/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/products/**").hasRole("ADMIN")
@@ -115,7 +133,8 @@ public class SecurityConfig {
                 "Accept",
                 "Origin",
                 "Cache-Control",
-                "X-File-Name"
+                "X-File-Name",
+                "X-Device-Id"
         ));
 
         configuration.setExposedHeaders(Arrays.asList(
@@ -140,4 +159,13 @@ public class SecurityConfig {
     public AuthenticationFailureHandler oAuth2FailureHandler() {
         return new OAuth2FailureHandler();
     }
+
+    private boolean fromManagementNetwork(HttpServletRequest request) {
+        for (String network : managementNetworks) {
+            if (new IpAddressMatcher(network.trim()).matches(request)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
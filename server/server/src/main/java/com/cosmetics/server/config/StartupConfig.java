@@ -0,0 +1,33 @@
+package com.cosmetics.server.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+@Configuration
+@Slf4j
+public class StartupConfig {
+
+    /**
+     * Marks beans that no request needs on the hot path (mail sender, Thymeleaf engine and resolvers) as lazy,
+     * so they are built on first use instead of during startup. EmailService only holds ObjectProviders to them.
+     * With AOT processing the lazy flags are baked into the generated bean definitions at build time.
+     */
+    @Bean
+    public static BeanFactoryPostProcessor lazyNonCriticalBeans(Environment environment) {
+        List<String> names = List.of(environment.getProperty("app.startup.lazy-beans", String[].class, new String[0]));
+        return beanFactory -> {
+            for (String name : names) {
+                if (beanFactory.containsBeanDefinition(name)) {
+                    beanFactory.getBeanDefinition(name).setLazyInit(true);
+                } else {
+                    log.debug("Lazy bean {} is not defined, skipping", name);
+                }
+            }
+        };
+    }
+}
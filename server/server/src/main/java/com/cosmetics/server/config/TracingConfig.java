@@ -0,0 +1,32 @@
+package com.cosmetics.server.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableAsync
+public class TracingConfig {
+
+    public static final String MESSAGING_EXECUTOR = "messagingExecutor";
+
+    /**
+     * The only executor behind @Async: fire-and-forget notification emails, which keep the trace (and MDC) of the
+     * request that queued them. OTP sends are not async, their outcome decides the response and the audit record.
+     */
+    @Bean(MESSAGING_EXECUTOR)
+    public ThreadPoolTaskExecutor messagingExecutor(
+            @Value("${app.messaging.async.threads:2}") int threads,
+            @Value("${app.messaging.async.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("messaging-");
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        return executor;
+    }
+}
@@ -0,0 +1,31 @@
+package com.cosmetics.server.config;
+
+import com.cosmetics.server.controller.PreSerializedJsonConverter;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+@Configuration
+public class WebConfig {
+
+    /**
+     * Tomcat skips compression for responses with a strong ETag by default. Catalog responses fold the
+     * negotiated encoding into their ETag (CatalogHttpCaching), so compressing them is safe.
+     */
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> compressStrongEtagResponses() {
+        return factory -> factory.addConnectorCustomizers(
+                connector -> connector.setProperty("noCompressionStrongETag", "false"));
+    }
+
+    /**
+     * Picked up by Boot's HttpMessageConverters ahead of the defaults; timestamps are written with the
+     * same ObjectMapper as every other response.
+     */
+    @Bean
+    public PreSerializedJsonConverter preSerializedJsonConverter(MappingJackson2HttpMessageConverter jacksonConverter) {
+        return new PreSerializedJsonConverter(jacksonConverter.getObjectMapper().writer());
+    }
+}
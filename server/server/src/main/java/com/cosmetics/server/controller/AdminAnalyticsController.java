@@ -0,0 +1,25 @@
+package com.cosmetics.server.controller;
+
+import com.cosmetics.server.DTO.response.AdminDashboardResponse;
+import com.cosmetics.server.DTO.response.ApiResponse;
+import com.cosmetics.server.service.AdminAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/analytics")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminAnalyticsController {
+
+    private final AdminAnalyticsService adminAnalyticsService;
+
+    @GetMapping("/dashboard")
+    public ResponseEntity<ApiResponse<AdminDashboardResponse>> getDashboard(
+            @RequestParam(defaultValue = "10") int topBrands) {
+        return ResponseEntity.ok(ApiResponse.success("Dashboard statistics",
+                adminAnalyticsService.dashboard(Math.clamp(topBrands, 1, 100))));
+    }
+}
@@ -0,0 +1,81 @@
+package com.cosmetics.server.controller;
+
+import com.cosmetics.server.DTO.response.ApiResponse;
+import com.cosmetics.server.DTO.response.CatalogImportResponse;
+import com.cosmetics.server.entity.ENUM.CatalogImportFormat;
+import com.cosmetics.server.entity.ENUM.ExportFormat;
+import com.cosmetics.server.service.CatalogImportService;
+import com.cosmetics.server.service.DataExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/catalog")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminCatalogController {
+
+    private final CatalogImportService catalogImportService;
+    private final DataExportService dataExportService;
+
+    /**
+     * Body is read straight from the servlet stream (no @RequestBody) so the payload is never buffered.
+     */
+    @PostMapping(value = "/import",
+            consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ApiResponse<CatalogImportResponse>> importCatalog(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            HttpServletRequest request) throws IOException {
+
+        CatalogImportFormat format = CatalogImportFormat.fromContentType(contentType);
+        CatalogImportResponse response = catalogImportService.importCatalog(request.getInputStream(), format);
+
+        return ResponseEntity.ok(ApiResponse.success("Catalog import completed", response));
+    }
+
+    @GetMapping("/imports")
+    public ResponseEntity<ApiResponse<List<CatalogImportResponse>>> getActiveImports() {
+        return ResponseEntity.ok(ApiResponse.success("Active catalog imports", catalogImportService.getActiveImports()));
+    }
+
+    @GetMapping("/export/products")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        return exportResponse(format, gzip, "products",
+                out -> dataExportService.exportProducts(out, format, gzip));
+    }
+
+    @GetMapping("/export/brands")
+    public ResponseEntity<StreamingResponseBody> exportBrands(
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        return exportResponse(format, gzip, "brands",
+                out -> dataExportService.exportBrands(out, format, gzip));
+    }
+
+    static ResponseEntity<StreamingResponseBody> exportResponse(ExportFormat format, boolean gzip,
+                                                                String baseName, StreamingResponseBody body) {
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(format.fileName(baseName, gzip))
+                .build();
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType(format.getContentType()))
+                .body(body);
+    }
+}
@@ -0,0 +1,78 @@
+package com.cosmetics.server.controller;
+
+import com.cosmetics.server.DTO.response.ApiResponse;
+import com.cosmetics.server.DTO.response.ProfilingRecordingResponse;
+import com.cosmetics.server.exception.ProfilingException;
+import com.cosmetics.server.profiling.ProfilingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/profiling")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminProfilingController {
+
+    private final ProfilingService profilingService;
+
+    @PostMapping("/recordings")
+    public ResponseEntity<ApiResponse<ProfilingRecordingResponse>> startRecording(
+            @RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "PT2M") Duration duration) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Recording started", profilingService.start(name, duration)));
+        } catch (ProfilingException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Cannot start recording", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/recordings")
+    public ResponseEntity<ApiResponse<List<ProfilingRecordingResponse>>> getRecordings() {
+        return ResponseEntity.ok(ApiResponse.success("JFR recordings", profilingService.list()));
+    }
+
+    /**
+     * Stops the recording and streams the .jfr file back (open it in JDK Mission Control or `jfr print`).
+     */
+    @PostMapping("/recordings/{id}/stop")
+    public ResponseEntity<StreamingResponseBody> stopRecording(@PathVariable long id) {
+        return profilingService.stop(id)
+                .map(AdminProfilingController::recordingFile)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/continuous")
+    public ResponseEntity<StreamingResponseBody> downloadContinuous() {
+        return recordingFile(profilingService.snapshotContinuous());
+    }
+
+    private static ResponseEntity<StreamingResponseBody> recordingFile(Path file) {
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(file.getFileName().toString())
+                .build();
+
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(body);
+    }
+}
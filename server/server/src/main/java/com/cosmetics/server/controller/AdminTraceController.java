@@ -0,0 +1,35 @@
+package com.cosmetics.server.controller;
+
+import com.cosmetics.server.DTO.response.ApiResponse;
+import com.cosmetics.server.DTO.response.TraceBreakdownResponse;
+import com.cosmetics.server.metrics.LocalSpanExporter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/traces")
+@RequiredArgsConstructor
+public class AdminTraceController {
+
+    private final LocalSpanExporter localSpanExporter;
+
+    /**
+     * Where the time went for recent slow requests (DB, Redis, bcrypt, SMTP ...), no profiler needed.
+     */
+    @GetMapping("/slow")
+    public ResponseEntity<ApiResponse<List<TraceBreakdownResponse>>> getSlowTraces(
+            @RequestParam(defaultValue = "500") long thresholdMs,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        List<TraceBreakdownResponse> traces = localSpanExporter.slowTraces(
+                Duration.ofMillis(thresholdMs), Math.min(Math.max(limit, 1), 100));
+        return ResponseEntity.ok(ApiResponse.success("Slow requests", traces));
+    }
+}
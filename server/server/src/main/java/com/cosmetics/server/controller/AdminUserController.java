@@ -0,0 +1,59 @@
+package com.cosmetics.server.controller;
+
+import com.cosmetics.server.DTO.response.ApiResponse;
+import com.cosmetics.server.DTO.response.DevicePresenceResponse;
+import com.cosmetics.server.DTO.response.OnlineUsersResponse;
+import com.cosmetics.server.DTO.response.PresenceResponse;
+import com.cosmetics.server.entity.ENUM.ExportFormat;
+import com.cosmetics.server.service.DataExportService;
+import com.cosmetics.server.service.PresenceService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/users")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminUserController {
+
+    private final DataExportService dataExportService;
+    private final PresenceService presenceService;
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        return AdminCatalogController.exportResponse(format, gzip, "users",
+                out -> dataExportService.exportUsers(out, format, gzip));
+    }
+
+    @GetMapping("/online")
+    public ResponseEntity<ApiResponse<OnlineUsersResponse>> getOnlineUsers(
+            @RequestParam(defaultValue = "0") long offset,
+            @RequestParam(defaultValue = "50") long limit) {
+
+        OnlineUsersResponse response = presenceService.getOnlineUsers(offset, Math.min(limit, 500));
+        return ResponseEntity.ok(ApiResponse.success("Online users", response));
+    }
+
+    @PostMapping("/presence")
+    public ResponseEntity<ApiResponse<Map<Long, PresenceResponse>>> getPresence(@RequestBody List<Long> userIds) {
+        if (userIds.size() > 1000) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Too many user ids", "At most 1000 ids per request"));
+        }
+        return ResponseEntity.ok(ApiResponse.success("User presence", presenceService.getPresence(userIds)));
+    }
+
+    @GetMapping("/{userId}/devices")
+    public ResponseEntity<ApiResponse<List<DevicePresenceResponse>>> getDevices(@PathVariable Long userId) {
+        return ResponseEntity.ok(ApiResponse.success("User devices", presenceService.getDevices(userId)));
+    }
+}
@@ -0,0 +1,127 @@
+package com.cosmetics.server.controller;
+
+import com.cosmetics.server.DTO.request.ClientInfo;
+import com.cosmetics.server.DTO.request.ForgotPasswordRequest;
+import com.cosmetics.server.DTO.request.LoginRequest;
+import com.cosmetics.server.DTO.request.LogoutRequest;
+import com.cosmetics.server.DTO.request.RefreshTokenRequest;
+import com.cosmetics.server.DTO.request.RegisterRequest;
+import com.cosmetics.server.DTO.request.ResetPasswordRequest;
+import com.cosmetics.server.DTO.request.SendOtpRequest;
+import com.cosmetics.server.DTO.request.VerifyOtpRequest;
+import com.cosmetics.server.DTO.response.ApiResponse;
+import com.cosmetics.server.DTO.response.AuthResponse;
+import com.cosmetics.server.DTO.response.LoginResponse;
+import com.cosmetics.server.DTO.response.RegisterResponse;
+import com.cosmetics.server.exception.AuthException;
+import com.cosmetics.server.exception.OtpBlockedException;
+import com.cosmetics.server.exception.OtpCooldownException;
+import com.cosmetics.server.exception.OtpRateLimitException;
+import com.cosmetics.server.exception.RedisUnavailableException;
+import com.cosmetics.server.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/auth")
+@RequiredArgsConstructor
+@Slf4j
+public class AuthController {
+
+    private final AuthService authService;
+
+    @PostMapping("/register")
+    public ResponseEntity<ApiResponse<RegisterResponse>> register(@Valid @RequestBody RegisterRequest request) {
+        RegisterResponse response = authService.register(request);
+        return ResponseEntity.ok(ApiResponse.success("Registration pending verification", response));
+    }
+
+    @PostMapping("/register/verify-otp")
+    public ResponseEntity<ApiResponse<AuthResponse>> verifyRegistration(
+            @Valid @RequestBody VerifyOtpRequest request,
+            HttpServletRequest httpRequest) {
+
+        AuthResponse response = authService.verifyRegistration(request, getClientInfo(httpRequest));
+        return ResponseEntity.ok(ApiResponse.success("Registration verified", response));
+    }
+
+    @PostMapping("/login")
+    public ResponseEntity<ApiResponse<LoginResponse>> login(@Valid @RequestBody LoginRequest request) {
+        LoginResponse response = authService.login(request);
+        return ResponseEntity.ok(ApiResponse.success("Verification code sent", response));
+    }
+
+    @PostMapping("/login/verify-otp")
+    public ResponseEntity<ApiResponse<AuthResponse>> verifyLogin(
+            @Valid @RequestBody VerifyOtpRequest request,
+            HttpServletRequest httpRequest) {
+
+        AuthResponse response = authService.verifyLogin(request, getClientInfo(httpRequest));
+        return ResponseEntity.ok(ApiResponse.success("Login successful", response));
+    }
+
+    @PostMapping("/otp/send")
+    public ResponseEntity<ApiResponse<Void>> sendOtp(@Valid @RequestBody SendOtpRequest request) {
+        authService.sendOtp(request.getUsername(), request.getPurpose());
+        return ResponseEntity.ok(ApiResponse.success("Verification code sent", null));
+    }
+
+    @PostMapping("/token/refresh")
+    public ResponseEntity<ApiResponse<AuthResponse>> refresh(
+            @Valid @RequestBody RefreshTokenRequest request,
+            HttpServletRequest httpRequest) {
+
+        AuthResponse response = authService.refresh(request.getRefreshToken(), getClientInfo(httpRequest));
+        return ResponseEntity.ok(ApiResponse.success("Token refreshed", response));
+    }
+
+    @PostMapping("/password/forgot")
+    public ResponseEntity<ApiResponse<Void>> forgotPassword(@Valid @RequestBody ForgotPasswordRequest request) {
+        authService.forgotPassword(request);
+        return ResponseEntity.ok(ApiResponse.success("If the account exists, a verification code was sent", null));
+    }
+
+    @PostMapping("/password/reset")
+    public ResponseEntity<ApiResponse<Void>> resetPassword(@Valid @RequestBody ResetPasswordRequest request) {
+        authService.resetPassword(request);
+        return ResponseEntity.ok(ApiResponse.success("Password reset", null));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(@RequestBody LogoutRequest request) {
+        authService.logout(request);
+        return ResponseEntity.ok(ApiResponse.success("Logged out", null));
+    }
+
+    @ExceptionHandler(AuthException.class)
+    public ResponseEntity<ApiResponse<Void>> handleAuthException(AuthException e) {
+        return ResponseEntity.status(e.getStatus()).body(ApiResponse.error(e.getMessage(), e.getCode()));
+    }
+
+    @ExceptionHandler({OtpBlockedException.class, OtpRateLimitException.class, OtpCooldownException.class})
+    public ResponseEntity<ApiResponse<Void>> handleOtpLimit(RuntimeException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(ApiResponse.error(e.getMessage(), "OTP_LIMITED"));
+    }
+
+    // FAIL_CLOSED: OTP and session state cannot be checked while Redis is down
+    @ExceptionHandler(RedisUnavailableException.class)
+    public ResponseEntity<ApiResponse<Void>> handleRedisUnavailable(RedisUnavailableException e) {
+        log.warn("Auth request rejected, Redis unavailable: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error("Service temporarily unavailable", "REDIS_UNAVAILABLE"));
+    }
+
+    private ClientInfo getClientInfo(HttpServletRequest request) {
+        String xfHeader = request.getHeader("X-Forwarded-For");
+        return ClientInfo.builder()
+                .ipAddress(xfHeader == null ? request.getRemoteAddr() : xfHeader.split(",")[0].trim())
+                .userAgent(request.getHeader("User-Agent"))
+                .build();
+    }
+}
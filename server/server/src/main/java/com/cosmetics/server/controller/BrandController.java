@@ -0,0 +1,37 @@
+package com.cosmetics.server.controller;
+
+import com.cosmetics.server.DTO.response.ApiResponse;
+import com.cosmetics.server.service.BrandService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequestMapping("/api/brands")
+@RequiredArgsConstructor
+@Slf4j
+public class BrandController {
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    private final BrandService brandService;
+    private final CatalogHttpCaching catalogHttpCaching;
+    private final SerializedResponseCache serializedResponseCache;
+
+    @GetMapping
+    public ResponseEntity<PreSerializedJson> getBrands(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+            WebRequest request) {
+
+        int pageNumber = Math.max(page, 0);
+        int pageSize = Math.clamp(size, 1, BrandService.MAX_PAGE_SIZE);
+        String tag = brandService.brandsPageTag(pageNumber, pageSize);
+
+        return catalogHttpCaching.conditional(request, tag,
+                () -> serializedResponseCache.get("brands", pageNumber, pageSize, DEFAULT_PAGE_SIZE, tag,
+                        () -> ApiResponse.success("Brands", brandService.getBrands(pageNumber, pageSize))));
+    }
+}
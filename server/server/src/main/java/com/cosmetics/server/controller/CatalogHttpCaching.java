@@ -0,0 +1,55 @@
+package com.cosmetics.server.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET support for public catalog reads: strong ETags built from version stamps (the body is only
+ * produced on a miss), 304 on If-None-Match, and CDN friendly Cache-Control.
+ * <p>
+ * The gzip and identity encodings of a response are different representations and must not share a strong
+ * ETag, so the negotiated encoding is folded into it. Tomcat compresses responses carrying strong ETags
+ * because of that (see WebConfig).
+ */
+@Component
+public class CatalogHttpCaching {
+
+    private final CacheControl cacheControl;
+
+    public CatalogHttpCaching(@Value("${app.catalog.http-cache.max-age:PT1M}") Duration maxAge,
+                              @Value("${app.catalog.http-cache.shared-max-age:PT5M}") Duration sharedMaxAge,
+                              @Value("${app.catalog.http-cache.stale-while-revalidate:PT30S}") Duration staleWhileRevalidate) {
+        this.cacheControl = CacheControl.maxAge(maxAge)
+                .sMaxAge(sharedMaxAge)
+                .staleWhileRevalidate(staleWhileRevalidate)
+                .cachePublic();
+    }
+
+    public <T> ResponseEntity<T> conditional(WebRequest request, String tag, Supplier<T> body) {
+        String etag = "\"" + tag + encodingSuffix(request) + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .body(body.get());
+    }
+
+    private static String encodingSuffix(WebRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains("gzip") ? "-gzip" : "";
+    }
+}
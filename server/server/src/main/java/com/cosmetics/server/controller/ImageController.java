@@ -0,0 +1,79 @@
+package com.cosmetics.server.controller;
+
+import com.cosmetics.server.image.ImageEncoding;
+import com.cosmetics.server.image.ImageStorage;
+import com.cosmetics.server.image.ImageVariant;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Resized product images. Files are content addressed, so responses are cacheable forever.
+ * Bodies go out through Tomcat's sendfile (kernel zero-copy from the page cache) when the connector supports it,
+ * and through a plain stream copy otherwise.
+ */
+@RestController
+@RequestMapping("/api/images")
+@RequiredArgsConstructor
+@Slf4j
+public class ImageController {
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(365))
+            .cachePublic()
+            .immutable()
+            .getHeaderValue();
+
+    private final ImageStorage imageStorage;
+
+    @GetMapping("/{hash}/{variant}.{extension}")
+    public void getImage(@PathVariable String hash,
+                         @PathVariable String variant,
+                         @PathVariable String extension,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+
+        Optional<Path> file = ImageStorage.isValidHash(hash)
+                ? ImageVariant.fromPathName(variant).flatMap(v -> ImageEncoding.fromExtension(extension)
+                        .flatMap(encoding -> imageStorage.find(hash, v, encoding)))
+                : Optional.empty();
+        if (file.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        String etag = "\"" + hash + "-" + variant + "-" + extension + "\"";
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        Path path = file.get();
+        long length = Files.size(path);
+        response.setContentType(ImageEncoding.fromExtension(extension).orElseThrow().getContentType());
+        response.setContentLengthLong(length);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+        } else {
+            Files.copy(path, response.getOutputStream());
+        }
+    }
+}
@@ -1,13 +1,23 @@
 package com.cosmetics.server.controller;
 
 
+import com.cosmetics.server.DTO.request.ClientInfo;
+import com.cosmetics.server.DTO.request.GoogleIdTokenRequest;
 import com.cosmetics.server.DTO.response.ApiResponse;
 import com.cosmetics.server.DTO.response.AuthResponse;
+import com.cosmetics.server.DTO.response.AuthorizationUrlResponse;
+import com.cosmetics.server.audit.AuditEventType;
+import com.cosmetics.server.audit.AuditLogger;
+import com.cosmetics.server.exception.AuthException;
+import com.cosmetics.server.exception.InvalidIdTokenException;
+import com.cosmetics.server.security.ProviderTokenVerifier;
+import com.cosmetics.server.security.VerifiedIdToken;
 import com.cosmetics.server.service.AuthService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,6 +28,8 @@ import org.springframework.web.bind.annotation.*;
 public class OAuth2Controller {
 
     private final AuthService authService;
+    private final ProviderTokenVerifier providerTokenVerifier;
+    private final AuditLogger auditLogger;
 
     @GetMapping("/callback/{provider}")
     public ResponseEntity<ApiResponse<AuthResponse>> oauth2Callback(
@@ -28,6 +40,7 @@ public class OAuth2Controller {
 
         AuthResponse response = authService.handleOAuth2Callback(
                 provider, code, state, getClientInfo(request));
+        auditLogger.record(AuditEventType.SOCIAL_LOGIN, null, "success", provider);
 
         return ResponseEntity.ok(ApiResponse.success("OAuth2 login successful", response));
     }
@@ -37,8 +50,20 @@ public class OAuth2Controller {
             @Valid @RequestBody GoogleIdTokenRequest request,
             HttpServletRequest httpRequest) {
 
+        // verified locally against the cached Google JWKS before any user lookup
+        VerifiedIdToken idToken;
+        try {
+            idToken = providerTokenVerifier.verifyGoogleIdToken(request.getIdToken());
+        } catch (InvalidIdTokenException e) {
+            log.warn("Rejected Google ID token: {}", e.getMessage());
+            auditLogger.record(AuditEventType.SOCIAL_LOGIN, null, "rejected", "google: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Google login failed", e.getMessage()));
+        }
+
         AuthResponse response = authService.handleGoogleIdToken(
-                request, getClientInfo(httpRequest));
+                idToken, getClientInfo(httpRequest));
+        auditLogger.record(AuditEventType.SOCIAL_LOGIN, idToken.getEmail(), "success", "google");
 
         return ResponseEntity.ok(ApiResponse.success("Google login successful", response));
     }
@@ -53,6 +78,12 @@ public class OAuth2Controller {
         return ResponseEntity.ok(ApiResponse.success("Authorization URL generated", response));
     }
 
+    @ExceptionHandler(AuthException.class)
+    public ResponseEntity<ApiResponse<Void>> handleAuthException(AuthException e) {
+        auditLogger.record(AuditEventType.SOCIAL_LOGIN, null, "rejected", e.getCode());
+        return ResponseEntity.status(e.getStatus()).body(ApiResponse.error(e.getMessage(), e.getCode()));
+    }
+
     private ClientInfo getClientInfo(HttpServletRequest request) {
         return ClientInfo.builder()
                 .ipAddress(getClientIpAddress(request))
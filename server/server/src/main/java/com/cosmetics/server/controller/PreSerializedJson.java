@@ -0,0 +1,35 @@
+package com.cosmetics.server.controller;
+
+/**
+ * An ApiResponse already serialized to UTF-8 JSON, split around the value of its timestamp field.
+ * Written by PreSerializedJsonConverter as prefix, current timestamp, suffix; the arrays are shared and never copied.
+ * A null suffix means the body could not be split and the prefix is the complete response.
+ */
+public final class PreSerializedJson {
+
+    private final byte[] prefix;
+    private final byte[] suffix;
+    private final String tag;
+
+    PreSerializedJson(byte[] prefix, byte[] suffix, String tag) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.tag = tag;
+    }
+
+    byte[] prefix() {
+        return prefix;
+    }
+
+    byte[] suffix() {
+        return suffix;
+    }
+
+    String tag() {
+        return tag;
+    }
+
+    boolean isSpliced() {
+        return suffix != null;
+    }
+}
@@ -0,0 +1,57 @@
+package com.cosmetics.server.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+/**
+ * Writes PreSerializedJson straight to the servlet output stream; only the timestamp goes through Jackson.
+ */
+public class PreSerializedJsonConverter extends AbstractHttpMessageConverter<PreSerializedJson> {
+
+    private final ObjectWriter timestampWriter;
+
+    public PreSerializedJsonConverter(ObjectWriter timestampWriter) {
+        super(MediaType.APPLICATION_JSON);
+        this.timestampWriter = timestampWriter.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return PreSerializedJson.class == clazz;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected PreSerializedJson readInternal(Class<? extends PreSerializedJson> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("PreSerializedJson is write-only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(PreSerializedJson json, MediaType contentType) {
+        // the timestamp length is only known once written
+        return json.isSpliced() ? null : (long) json.prefix().length;
+    }
+
+    @Override
+    protected void writeInternal(PreSerializedJson json, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream body = outputMessage.getBody();
+        body.write(json.prefix());
+        if (json.isSpliced()) {
+            timestampWriter.writeValue(body, LocalDateTime.now());
+            body.write(json.suffix());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.cosmetics.server.controller;
+
+import com.cosmetics.server.DTO.response.ApiResponse;
+import com.cosmetics.server.DTO.response.ProductResponse;
+import com.cosmetics.server.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+@Slf4j
+public class ProductController {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private final ProductService productService;
+    private final CatalogHttpCaching catalogHttpCaching;
+    private final SerializedResponseCache serializedResponseCache;
+
+    /**
+     * Served from pre-serialized bytes for the first pages (SerializedResponseCache); the JSON is the same
+     * ApiResponse of a PageResponse of products.
+     */
+    @GetMapping
+    public ResponseEntity<PreSerializedJson> getProducts(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+            WebRequest request) {
+
+        int pageNumber = Math.max(page, 0);
+        int pageSize = Math.clamp(size, 1, ProductService.MAX_PAGE_SIZE);
+        String tag = productService.productsPageTag(pageNumber, pageSize);
+
+        return catalogHttpCaching.conditional(request, tag,
+                () -> serializedResponseCache.get("products", pageNumber, pageSize, DEFAULT_PAGE_SIZE, tag,
+                        () -> ApiResponse.success("Products", productService.getProducts(pageNumber, pageSize))));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<ProductResponse>> getProduct(@PathVariable Long id, WebRequest request) {
+        Optional<String> tag = productService.productTag(id);
+        if (tag.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // a write between the version lookup and the load only yields a response newer than its ETag
+        return catalogHttpCaching.conditional(request, tag.get(),
+                () -> productService.getProduct(id)
+                        .map(product -> ApiResponse.success("Product", product))
+                        .orElseGet(() -> ApiResponse.error("Product not found", "NOT_FOUND")));
+    }
+}
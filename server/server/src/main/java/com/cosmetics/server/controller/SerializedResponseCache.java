@@ -0,0 +1,120 @@
+package com.cosmetics.server.controller;
+
+import com.cosmetics.server.DTO.response.ApiResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Serialized bytes of hot catalog pages, per resource and page. Only the default page size is cached and the
+ * responses are not localized, so the key space is bounded by max-page and clients cannot grow it through query
+ * parameters or headers. Each entry remembers the validator (ETag tag) it was built for; a newer catalog version
+ * rebuilds it in place and evicts the resource's other entries built for an older version.
+ * <p>
+ * Serialization uses the same ObjectMapper as the MVC Jackson converter, so cached and uncached responses are
+ * byte-identical apart from the timestamp. If the timestamp cannot be located in the output, nothing is cached.
+ */
+@Component
+@Slf4j
+public class SerializedResponseCache {
+
+    // unlikely to be a real value, located in the output to split it
+    private static final LocalDateTime TIMESTAMP_SENTINEL = LocalDateTime.of(1970, 1, 1, 0, 0, 0, 123_456_789);
+    private static final byte[] TIMESTAMP_FIELD = "\"timestamp\":".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final byte[] sentinelBytes;
+    private final int maxPage;
+    private final Map<String, PreSerializedJson> entries = new ConcurrentHashMap<>();
+
+    public SerializedResponseCache(MappingJackson2HttpMessageConverter jacksonConverter,
+                                   @Value("${app.catalog.serialized-cache.max-page:4}") int maxPage)
+            throws JsonProcessingException {
+        this.objectMapper = jacksonConverter.getObjectMapper();
+        this.sentinelBytes = objectMapper.writeValueAsBytes(TIMESTAMP_SENTINEL);
+        this.maxPage = maxPage;
+    }
+
+    /**
+     * Cached bytes for a listing page when it is hot (default size, page number up to max-page) and still current,
+     * otherwise the response is serialized now and cached if it qualifies. Tags are expected in the catalog
+     * form {@code <version>-p<page>-s<size>}.
+     */
+    public PreSerializedJson get(String resource, int page, int size, int defaultSize, String tag,
+                                 Supplier<ApiResponse<?>> response) {
+        if (page > maxPage || size != defaultSize) {
+            return serialize(response.get(), tag);
+        }
+
+        String key = resource + ':' + page;
+        PreSerializedJson cached = entries.get(key);
+        if (cached != null && cached.tag().equals(tag)) {
+            return cached;
+        }
+
+        PreSerializedJson fresh = serialize(response.get(), tag);
+        if (fresh.isSpliced()) {
+            entries.put(key, fresh);
+        }
+        // a rebuild usually means the catalog moved on: the resource's other pages are stale too, drop them
+        String version = version(tag);
+        entries.entrySet().removeIf(entry -> entry.getKey().startsWith(resource + ':')
+                && !version.equals(version(entry.getValue().tag())));
+        return fresh;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private static String version(String tag) {
+        int end = tag.indexOf('-');
+        return end < 0 ? tag : tag.substring(0, end);
+    }
+
+    private PreSerializedJson serialize(ApiResponse<?> response, String tag) {
+        response.setTimestamp(TIMESTAMP_SENTINEL);
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize catalog response", e);
+        }
+
+        int at = indexOfTimestamp(json);
+        if (at < 0) {
+            log.warn("Timestamp not found in serialized {}, response will not be cached", response.getClass());
+            return new PreSerializedJson(json, null, tag);
+        }
+        return new PreSerializedJson(Arrays.copyOfRange(json, 0, at),
+                Arrays.copyOfRange(json, at + sentinelBytes.length, json.length), tag);
+    }
+
+    /**
+     * Offset of the timestamp value, i.e. the sentinel right after "timestamp":
+     */
+    private int indexOfTimestamp(byte[] json) {
+        int last = json.length - TIMESTAMP_FIELD.length - sentinelBytes.length;
+        for (int i = 0; i <= last; i++) {
+            if (regionMatches(json, i, TIMESTAMP_FIELD)
+                    && regionMatches(json, i + TIMESTAMP_FIELD.length, sentinelBytes)) {
+                return i + TIMESTAMP_FIELD.length;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionMatches(byte[] json, int offset, byte[] expected) {
+        return Arrays.equals(json, offset, offset + expected.length, expected, 0, expected.length);
+    }
+}
@@ -0,0 +1,37 @@
+package com.cosmetics.server.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Read-only work that must see the primary even though its transaction is read-only.
+ * <p>
+ * For reads whose result is paired with a validator taken from the primary (catalog version, row version) or that
+ * populate shared caches (HTTP response cache, CDN, Hibernate second-level regions): served from a lagging replica
+ * they would pin old rows under a new tag. Must wrap the first statement of the transaction, since the routing
+ * decision is made when the lazy connection is fetched.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Integer> DEPTH = ThreadLocal.withInitial(() -> 0);
+
+    private PrimaryReads() {
+    }
+
+    public static boolean isPinned() {
+        return DEPTH.get() > 0;
+    }
+
+    public static <T> T call(Supplier<T> read) {
+        DEPTH.set(DEPTH.get() + 1);
+        try {
+            return read.get();
+        } finally {
+            int depth = DEPTH.get() - 1;
+            if (depth == 0) {
+                DEPTH.remove();
+            } else {
+                DEPTH.set(depth);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.cosmetics.server.datasource;
+
+/**
+ * Per-request read-your-writes state, bound by {@link PrimaryStickinessFilter}.
+ * <p>
+ * A request is sticky when the client wrote within the sticky window (carried in a cookie, so it holds on any
+ * instance) or when the request itself already committed a write. Sticky requests read from the primary.
+ * Threads without a bound request (schedulers, pools) are never sticky.
+ */
+public final class PrimaryStickiness {
+
+    private static final ThreadLocal<State> STATE = new ThreadLocal<>();
+
+    private PrimaryStickiness() {
+    }
+
+    public static boolean isSticky() {
+        State state = STATE.get();
+        return state != null && state.sticky;
+    }
+
+    static void bind(boolean sticky, Runnable onFirstWrite) {
+        STATE.set(new State(sticky, onFirstWrite));
+    }
+
+    static void clear() {
+        STATE.remove();
+    }
+
+    static void writeCommitted() {
+        State state = STATE.get();
+        if (state == null) {
+            return;
+        }
+        state.sticky = true;
+        if (!state.written) {
+            state.written = true;
+            state.onFirstWrite.run();
+        }
+    }
+
+    private static final class State {
+        private final Runnable onFirstWrite;
+        private boolean sticky;
+        private boolean written;
+
+        private State(boolean sticky, Runnable onFirstWrite) {
+            this.sticky = sticky;
+            this.onFirstWrite = onFirstWrite;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.cosmetics.server.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a streaming replica and everything else to the primary.
+ * <p>
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction manager asks for a connection before the
+ * read-only flag is bound, the proxy defers that until the first statement. Replicas are used only while their
+ * measured replay lag is within max-lag ({@link #checkReplicas()}); with none healthy, reads go to the primary.
+ * Requests that recently wrote stay on the primary ({@link PrimaryStickiness}) so users read their own writes, and
+ * reads that feed version-tagged or shared caches are pinned to it ({@link PrimaryReads}).
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    static final String PRIMARY = "primary";
+
+    // replay lag is only meaningful while WAL is pending; a caught-up replica of an idle primary has lag 0
+    private static final String LAG_SQL = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   END
+            """;
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicaDataSources, Duration maxLag) {
+        this.primary = primary;
+        this.maxLagMillis = maxLag.toMillis();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicaDataSources.forEach((name, dataSource) -> {
+            replicas.add(new Replica(name, dataSource));
+            targets.put(name, dataSource);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        PrimaryStickiness.writeCommitted();
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        if (PrimaryStickiness.isSticky() || PrimaryReads.isPinned()) {
+            return PRIMARY;
+        }
+        Replica replica = pickReplica();
+        return replica != null ? replica.name : PRIMARY;
+    }
+
+    /**
+     * Replica-preferring view for reads that run outside a transaction and tolerate replica lag
+     * (e.g. dashboard aggregates). Falls back to the primary like routed reads do.
+     */
+    public DataSource readOnlyView() {
+        return new AbstractDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return target().getConnection();
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return target().getConnection(username, password);
+            }
+
+            private DataSource target() {
+                Replica replica = pickReplica();
+                return replica != null ? replica.dataSource : primary;
+            }
+        };
+    }
+
+    /**
+     * Measures each replica's replay lag and takes replicas out of rotation while they are behind or unreachable.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try {
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(replica.dataSource);
+                jdbcTemplate.setQueryTimeout(1);
+                Double lag = jdbcTemplate.queryForObject(LAG_SQL, Double.class);
+                replica.lagMillis = lag != null ? lag.longValue() : Long.MAX_VALUE;
+            } catch (RuntimeException e) {
+                replica.lagMillis = Long.MAX_VALUE;
+                log.debug("Replica {} lag check failed: {}", replica.name, e.getMessage());
+            }
+
+            boolean healthy = replica.lagMillis <= maxLagMillis;
+            if (healthy != replica.healthy) {
+                log.warn("Replica {} {} (lag {} ms)", replica.name, healthy ? "back in rotation" : "out of rotation",
+                        replica.lagMillis == Long.MAX_VALUE ? "unknown" : replica.lagMillis);
+                replica.healthy = healthy;
+            }
+        }
+    }
+
+    public List<Replica> getReplicas() {
+        return List.copyOf(replicas);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private Replica pickReplica() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Out of rotation until the first lag check passes.
+     */
+    public static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+        private volatile long lagMillis = Long.MAX_VALUE;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public long getLagMillis() {
+            return lagMillis;
+        }
+    }
+}
@@ -2,13 +2,21 @@ package com.cosmetics.server.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "brand")
+// existing databases: run db/catalog-natural-keys.sql first, it merges duplicate names before adding uk_brand_name
+@Table(name = "brand",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_brand_name", columnNames = {"name"})
+        })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "brand")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,6 +25,7 @@ public class Brand {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Column(name = "name", nullable = false)
     private String name;
 
     private String description;
@@ -0,0 +1,50 @@
+package com.cosmetics.server.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read model: one row per brand with its product aggregates, so brand listings never touch products.
+ * Written only by BrandSummaryService (set-based SQL), hence immutable to Hibernate.
+ */
+@Entity
+@Immutable
+@Table(name = "brand_product_summary",
+        indexes = {
+                @Index(name = "idx_brand_product_summary_name", columnList = "brand_name")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BrandProductSummary {
+    @Id
+    @Column(name = "brand_id")
+    private Long brandId;
+
+    @Column(name = "brand_name", nullable = false)
+    private String brandName;
+
+    @Column(name = "brand_description")
+    private String brandDescription;
+
+    @Column(name = "product_count", nullable = false)
+    private long productCount;
+
+    @Column(name = "in_stock_count", nullable = false)
+    private long inStockCount;
+
+    @Column(name = "min_price")
+    private BigDecimal minPrice;
+
+    @Column(name = "max_price")
+    private BigDecimal maxPrice;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
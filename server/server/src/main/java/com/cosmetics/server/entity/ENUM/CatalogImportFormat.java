@@ -0,0 +1,13 @@
+package com.cosmetics.server.entity.ENUM;
+
+public enum CatalogImportFormat {
+    CSV,
+    JSON;
+
+    public static CatalogImportFormat fromContentType(String contentType) {
+        if (contentType != null && contentType.toLowerCase().contains("json")) {
+            return JSON;
+        }
+        return CSV;
+    }
+}
@@ -1,14 +1,31 @@
 package com.cosmetics.server.entity;
 
+import com.cosmetics.server.event.ProductChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_products_sku", columnNames = {"sku"})
+        },
+        indexes = {
+                @Index(name = "idx_products_brand_id", columnList = "brand_id"),
+                // low-stock queries on the admin dashboard
+                @Index(name = "idx_products_quantity", columnList = "quantity")
+        })
+@EntityListeners(ProductChangeListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,13 +34,33 @@ public class Product {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Supplier SKU, natural key used by the bulk catalog import upsert
+    @Column(name = "sku", length = 64)
+    private String sku;
+
     private String description;
 
     private BigDecimal price;
     private Integer quantity;
     private String imageUrl;
 
+    // SHA-256 of the ingested source image, names the resized variants; cleared when imageUrl changes
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
+
     @ManyToOne
     @JoinColumn(name = "brand_id")
     private Brand brand;
+
+    // bumped on every write, including the bulk import upsert; product ETags are derived from it
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // brand at load time, set by ProductChangeListener
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Long loadedBrandId;
 }
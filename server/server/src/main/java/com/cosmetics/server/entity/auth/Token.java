@@ -11,7 +11,7 @@ import java.util.UUID;
 @Table(name = "user_tokens",
         indexes = {
                 @Index(name = "idx_user_tokens_user_id", columnList = "user_id"),
-                @Index(name = "idx_user_tokens_token_id", columnList = "token_id")
+                @Index(name = "idx_user_tokens_token_id", columnList = "token_id", unique = true)
         })
 @Getter
 @Setter
@@ -26,6 +26,10 @@ public class Token {
     @Column(name = "user_id", nullable = false)
     private Long userId;
 
+    // jti of the refresh token; member of the user's session set in Redis (RefreshSessionService)
+    @Column(name = "token_id", length = 36)
+    private String tokenId;
+
     // Hash của phần "secret" (bcrypt/argon2) — KHÔNG lưu secret plain
     @Column(name = "refresh_token_hash", nullable = false, length = 512)
     private String refreshTokenHash;
@@ -4,10 +4,13 @@ import com.cosmetics.server.entity.ENUM.AuthProvider;
 import com.cosmetics.server.entity.ENUM.Genders;
 import com.cosmetics.server.entity.ENUM.Role;
 import com.cosmetics.server.entity.ENUM.STATUS;
+import com.cosmetics.server.validation.Identifier;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -21,6 +24,10 @@ import java.util.Set;
                 @UniqueConstraint(name = "uk_users_email", columnNames = {"email"}),
                 @UniqueConstraint(name = "uk_users_phone", columnNames = {"phone_number"}),
                 @UniqueConstraint(name = "uk_users_provider", columnNames = {"auth_provider", "provider_id"})
+        },
+        indexes = {
+                @Index(name = "idx_users_status_created_at", columnList = "status, created_at"),
+                @Index(name = "idx_users_created_at", columnList = "created_at")
         })
 @Getter
 @Setter
@@ -44,13 +51,21 @@ public class Users {
     @Column(name = "phone_number", length = 32, unique = true)
     private String phoneNumber;
 
+    @Column(name = "first_name", length = 50)
+    private String firstName;
+
+    @Column(name = "last_name", length = 50)
+    private String lastName;
+
     @Column(name = "password", length = 255)
     @JsonIgnore
     @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password; //Bcrypt
 
 
+    // cached per user id, so loading a user no longer needs the roles query
     @ElementCollection(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-roles")
     @Enumerated(EnumType.STRING)
     @Builder.Default
     private Set<Role> roles = Set.of(Role.CUSTOMER);
@@ -93,6 +108,7 @@ public class Users {
     @Column(name = "last_login")
     private LocalDateTime lastLoginAt = LocalDateTime.now();
 
+    // Account state only; online/offline presence is tracked in Redis by PresenceService
     @Enumerated(EnumType.STRING)
     @Column(name = "status", length = 10, nullable = false)
     @Builder.Default
@@ -108,6 +124,6 @@ public class Users {
     }
 
     public boolean isPhoneUser() {
-        return username != null && username.matches("^\\+?[1-9]\\d{1,14}$");
+        return Identifier.isE164(username);
     }
 }
@@ -0,0 +1,34 @@
+package com.cosmetics.server.event;
+
+import java.util.Set;
+
+/**
+ * Published inside the writing transaction whenever products change. Listeners that react after commit
+ * (catalog version, caches, read models) use @TransactionalEventListener.
+ *
+ * @param brandIds     brands whose products changed (empty for products without a brand)
+ * @param wholeCatalog true for bulk writes where the affected brands are not tracked
+ */
+public record CatalogChangedEvent(Set<Long> brandIds, boolean wholeCatalog) {
+
+    public static CatalogChangedEvent forBrand(Long brandId) {
+        return new CatalogChangedEvent(brandId == null ? Set.of() : Set.of(brandId), false);
+    }
+
+    /**
+     * A product moved between brands: both sides changed.
+     */
+    public static CatalogChangedEvent forBrands(Long previousBrandId, Long brandId) {
+        if (previousBrandId == null || previousBrandId.equals(brandId)) {
+            return forBrand(brandId);
+        }
+        if (brandId == null) {
+            return forBrand(previousBrandId);
+        }
+        return new CatalogChangedEvent(Set.of(previousBrandId, brandId), false);
+    }
+
+    public static CatalogChangedEvent forWholeCatalog() {
+        return new CatalogChangedEvent(Set.of(), true);
+    }
+}
@@ -0,0 +1,41 @@
+package com.cosmetics.server.event;
+
+import com.cosmetics.server.entity.Product;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener on Product (instantiated by Spring through Hibernate's bean container) that turns
+ * entity writes into CatalogChangedEvents for the brands involved.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Remembers the brand as loaded, so moving a product to another brand refreshes both.
+     */
+    @PostLoad
+    public void onLoad(Product product) {
+        product.setLoadedBrandId(brandId(product));
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Product product) {
+        eventPublisher.publishEvent(CatalogChangedEvent.forBrands(product.getLoadedBrandId(), brandId(product)));
+        product.setLoadedBrandId(brandId(product));
+    }
+
+    private static Long brandId(Product product) {
+        return product.getBrand() != null ? product.getBrand().getId() : null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.cosmetics.server.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * An auth request that cannot proceed, with the status and error code returned to the client.
+ */
+@Getter
+public class AuthException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final String code;
+
+    public AuthException(HttpStatus status, String code, String message) {
+        super(message);
+        this.status = status;
+        this.code = code;
+    }
+}
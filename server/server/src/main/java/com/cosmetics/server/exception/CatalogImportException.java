@@ -0,0 +1,10 @@
+package com.cosmetics.server.exception;
+
+public class CatalogImportException extends RuntimeException {
+    public CatalogImportException(String message) {
+        super(message);
+    }
+    public CatalogImportException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
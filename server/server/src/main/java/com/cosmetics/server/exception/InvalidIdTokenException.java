@@ -0,0 +1,10 @@
+package com.cosmetics.server.exception;
+
+public class InvalidIdTokenException extends RuntimeException {
+    public InvalidIdTokenException(String message) {
+        super(message);
+    }
+    public InvalidIdTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
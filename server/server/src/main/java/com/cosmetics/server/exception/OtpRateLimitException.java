@@ -0,0 +1,7 @@
+package com.cosmetics.server.exception;
+
+public class OtpRateLimitException extends RuntimeException {
+    public OtpRateLimitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.cosmetics.server.exception;
+
+public class ProfilingException extends RuntimeException {
+    public ProfilingException(String message) {
+        super(message);
+    }
+    public ProfilingException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package com.cosmetics.server.exception;
+
+public class RedisUnavailableException extends RuntimeException {
+    public RedisUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,40 @@
+package com.cosmetics.server.image;
+
+import java.util.Optional;
+
+public enum ImageEncoding {
+    JPEG("jpeg", "jpg", "image/jpeg"),
+    // only produced when an ImageIO WebP writer is on the classpath
+    WEBP("webp", "webp", "image/webp");
+
+    private final String imageIoFormat;
+    private final String extension;
+    private final String contentType;
+
+    ImageEncoding(String imageIoFormat, String extension, String contentType) {
+        this.imageIoFormat = imageIoFormat;
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getImageIoFormat() {
+        return imageIoFormat;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static Optional<ImageEncoding> fromExtension(String extension) {
+        for (ImageEncoding encoding : values()) {
+            if (encoding.extension.equals(extension)) {
+                return Optional.of(encoding);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,278 @@
+package com.cosmetics.server.image;
+
+import com.cosmetics.server.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Ingests each product image once: download Product.imageUrl, hash it, write every variant in every supported
+ * encoding, then store the hash on the product. Work runs on a small fixed pool with a bounded queue; products
+ * that do not fit are simply picked up again by the next sweep. Failed products back off before being retried.
+ */
+@Service
+@Slf4j
+public class ImagePipelineService {
+
+    private final ProductRepository productRepository;
+    private final ImageProcessor imageProcessor;
+    private final ImageStorage imageStorage;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor workers;
+    private final HttpClient httpClient;
+    private final long maxSourceBytes;
+    private final Set<String> allowedHosts;
+    private final int maxRedirects;
+    private final Duration fetchTimeout;
+    private final Duration failureBackoff;
+    private final int sweepBatchSize;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Instant> failedUntil = new ConcurrentHashMap<>();
+    private final Counter ingested;
+    private final Counter failed;
+
+    public ImagePipelineService(ProductRepository productRepository,
+                                ImageProcessor imageProcessor,
+                                ImageStorage imageStorage,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.images.workers:2}") int workerCount,
+                                @Value("${app.images.queue-capacity:256}") int queueCapacity,
+                                @Value("${app.images.max-source-bytes:10485760}") long maxSourceBytes,
+                                @Value("${app.images.allowed-hosts:}") List<String> allowedHosts,
+                                @Value("${app.images.max-redirects:3}") int maxRedirects,
+                                @Value("${app.images.fetch-timeout:PT10S}") Duration fetchTimeout,
+                                @Value("${app.images.failure-backoff:PT1H}") Duration failureBackoff,
+                                @Value("${app.images.sweep-batch-size:200}") int sweepBatchSize) {
+        this.productRepository = productRepository;
+        this.imageProcessor = imageProcessor;
+        this.imageStorage = imageStorage;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxSourceBytes = maxSourceBytes;
+        this.allowedHosts = allowedHosts.stream()
+                .map(host -> host.trim().toLowerCase(Locale.ROOT))
+                .filter(host -> !host.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.maxRedirects = maxRedirects;
+        this.fetchTimeout = fetchTimeout;
+        this.failureBackoff = failureBackoff;
+        this.sweepBatchSize = sweepBatchSize;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(fetchTimeout)
+                // redirects are followed by hand so every hop goes through checkSource
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "image-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    // resizing is CPU bound, keep request threads ahead of it
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        this.ingested = Counter.builder("images.ingest").tag("result", "success").register(meterRegistry);
+        this.failed = Counter.builder("images.ingest").tag("result", "failure").register(meterRegistry);
+        Gauge.builder("images.ingest.queue", workers, executor -> executor.getQueue().size())
+                .description("Product images waiting for a worker")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues products whose image has not been ingested yet (new products, or imageUrl changed by an import).
+     */
+    @Scheduled(fixedDelayString = "${app.images.sweep-interval-ms:30000}")
+    public void sweep() {
+        Instant now = Instant.now();
+        failedUntil.values().removeIf(until -> until.isBefore(now));
+
+        List<Long> pending = productRepository.findIdsPendingImageIngest(PageRequest.of(0, sweepBatchSize));
+        for (Long productId : pending) {
+            if (!failedUntil.containsKey(productId) && !submit(productId)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return false when the queue is full
+     */
+    public boolean submit(Long productId) {
+        if (!inFlight.add(productId)) {
+            return true;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    ingest(productId);
+                } finally {
+                    inFlight.remove(productId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(productId);
+            return false;
+        }
+    }
+
+    private void ingest(Long productId) {
+        String imageUrl = productRepository.findImageUrlById(productId).orElse(null);
+        if (imageUrl == null) {
+            return;
+        }
+        try {
+            byte[] source = download(imageUrl);
+            String hash = sha256(source);
+            writeVariants(hash, source);
+
+            transactionTemplate.executeWithoutResult(status -> productRepository.findById(productId)
+                    // the URL may have changed while we were working, the next sweep handles the new one
+                    .filter(product -> imageUrl.equals(product.getImageUrl()))
+                    .ifPresent(product -> product.setImageHash(hash)));
+            ingested.increment();
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            failed.increment();
+            failedUntil.put(productId, Instant.now().plus(failureBackoff));
+            log.warn("Image ingest failed for product {} ({}): {}", productId, imageUrl, e.getMessage());
+        }
+    }
+
+    private void writeVariants(String hash, byte[] source) throws IOException {
+        BufferedImage original = null;
+        for (ImageVariant variant : ImageVariant.values()) {
+            for (ImageEncoding encoding : imageProcessor.supportedEncodings()) {
+                if (imageStorage.exists(hash, variant, encoding)) {
+                    continue;
+                }
+                if (original == null) {
+                    original = imageProcessor.decode(source);
+                }
+                BufferedImage resized = imageProcessor.resize(original, variant.getMaxWidth());
+                imageStorage.write(hash, variant, encoding, imageProcessor.encode(resized, encoding));
+            }
+        }
+    }
+
+    private byte[] download(String imageUrl) throws IOException, InterruptedException {
+        URI uri = URI.create(imageUrl);
+        for (int redirects = 0; ; redirects++) {
+            checkSource(uri);
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(fetchTimeout)
+                    .GET()
+                    .build();
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                int status = response.statusCode();
+                if (status == 301 || status == 302 || status == 303 || status == 307 || status == 308) {
+                    if (redirects >= maxRedirects) {
+                        throw new IOException("More than " + maxRedirects + " redirects");
+                    }
+                    String location = response.headers().firstValue("Location")
+                            .orElseThrow(() -> new IOException("HTTP " + status + " without Location"));
+                    uri = uri.resolve(location);
+                    continue;
+                }
+                if (status != 200) {
+                    throw new IOException("HTTP " + status);
+                }
+                byte[] bytes = body.readNBytes((int) Math.min(Integer.MAX_VALUE - 8, maxSourceBytes + 1));
+                if (bytes.length > maxSourceBytes) {
+                    throw new IOException("Source image larger than " + maxSourceBytes + " bytes");
+                }
+                return bytes;
+            }
+        }
+    }
+
+    /**
+     * Image URLs come from catalog imports, so the server must not be usable to reach its own network: each hop
+     * has to be http(s), on the allow-list when one is configured, and resolve only to public addresses. The
+     * client resolves the name again when it connects, so only the allow-list also closes a DNS rebinding window.
+     */
+    private void checkSource(URI uri) throws IOException {
+        if (!"https".equalsIgnoreCase(uri.getScheme()) && !"http".equalsIgnoreCase(uri.getScheme())) {
+            throw new IOException("Unsupported image URL scheme " + uri.getScheme());
+        }
+        String host = uri.getHost();
+        if (host == null) {
+            throw new IOException("Image URL without a host");
+        }
+        if (!allowedHosts.isEmpty() && !allowedHosts.contains(host.toLowerCase(Locale.ROOT))) {
+            throw new IOException("Image host " + host + " is not allowed");
+        }
+        for (InetAddress address : InetAddress.getAllByName(host)) {
+            if (isInternal(address)) {
+                throw new IOException("Image host " + host + " resolves to internal address "
+                        + address.getHostAddress());
+            }
+        }
+    }
+
+    private static boolean isInternal(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return true;
+        }
+        byte[] raw = address.getAddress();
+        if (raw.length == 4) {
+            // 0.0.0.0/8 and carrier-grade NAT 100.64.0.0/10
+            return raw[0] == 0 || ((raw[0] & 0xff) == 100 && (raw[1] & 0xc0) == 64);
+        }
+        // IPv6 unique local fc00::/7
+        return (raw[0] & 0xfe) == 0xfc;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
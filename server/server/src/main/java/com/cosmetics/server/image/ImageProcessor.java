@@ -0,0 +1,132 @@
+package com.cosmetics.server.image;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Decode, resize and re-encode with ImageIO. Resizing halves the image repeatedly before the last step,
+ * which keeps bilinear scaling sharp without the cost of an area-averaging filter.
+ */
+@Component
+public class ImageProcessor {
+
+    private final float quality;
+    private final long maxPixels;
+    private final Set<ImageEncoding> encodings;
+
+    public ImageProcessor(@Value("${app.images.quality:0.82}") float quality,
+                          @Value("${app.images.max-pixels:40000000}") long maxPixels) {
+        this.quality = quality;
+        this.maxPixels = maxPixels;
+        this.encodings = EnumSet.noneOf(ImageEncoding.class);
+        for (ImageEncoding encoding : ImageEncoding.values()) {
+            if (ImageIO.getImageWritersByFormatName(encoding.getImageIoFormat()).hasNext()) {
+                encodings.add(encoding);
+            }
+        }
+    }
+
+    /**
+     * Encodings this JVM can write; JPEG always, WebP only with a WebP ImageIO plugin installed. The build does
+     * not ship one (the available writers wrap native libwebp, which the native image cannot load), so by
+     * default only JPEG variants are produced.
+     */
+    public Set<ImageEncoding> supportedEncodings() {
+        return encodings;
+    }
+
+    /**
+     * Decodes the first image after checking its header dimensions against max-pixels. A small file can declare
+     * a huge raster, so the byte limit on downloads alone does not bound the decoded size.
+     */
+    public BufferedImage decode(byte[] source) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(source))) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new IOException("Image of " + reader.getWidth(0) + "x" + reader.getHeight(0)
+                            + " exceeds " + maxPixels + " pixels");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    public BufferedImage resize(BufferedImage source, int maxWidth) {
+        int targetWidth = Math.min(maxWidth, source.getWidth());
+        int targetHeight = Math.max(1, Math.round(source.getHeight() * (targetWidth / (float) source.getWidth())));
+
+        // JPEG has no alpha, flatten everything to RGB once
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, Color.WHITE, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = step;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    public byte[] encode(BufferedImage image, ImageEncoding encoding) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(encoding.getImageIoFormat());
+        if (!writers.hasNext()) {
+            throw new IOException("No ImageIO writer for " + encoding);
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(image.getWidth() * image.getHeight() / 4);
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionType() == null && param.getCompressionTypes().length > 0) {
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                }
+                param.setCompressionQuality(quality);
+            }
+            if (param.canWriteProgressive()) {
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,58 @@
+package com.cosmetics.server.image;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Variant files on local disk, named by the SHA-256 of the source image: {dir}/{hash[0..2]}/{hash}-{variant}.{ext}.
+ * Content addressed, so a file never changes once written and identical sources are stored once.
+ */
+@Component
+public class ImageStorage {
+
+    private final Path directory;
+
+    public ImageStorage(@Value("${app.images.directory:images}") String directory) throws IOException {
+        this.directory = Files.createDirectories(Path.of(directory)).toAbsolutePath();
+    }
+
+    public static boolean isValidHash(String hash) {
+        return hash != null && hash.length() == 64 && HexFormat.isHexDigits(hash) && hash.equals(hash.toLowerCase());
+    }
+
+    public Path path(String hash, ImageVariant variant, ImageEncoding encoding) {
+        return directory.resolve(hash.substring(0, 2))
+                .resolve(hash + "-" + variant.pathName() + "." + encoding.getExtension());
+    }
+
+    public Optional<Path> find(String hash, ImageVariant variant, ImageEncoding encoding) {
+        Path path = path(hash, variant, encoding);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    public boolean exists(String hash, ImageVariant variant, ImageEncoding encoding) {
+        return Files.isRegularFile(path(hash, variant, encoding));
+    }
+
+    /**
+     * Written to a temp file and moved into place, readers never see a partial variant.
+     */
+    public void write(String hash, ImageVariant variant, ImageEncoding encoding, byte[] bytes) throws IOException {
+        Path target = path(hash, variant, encoding);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), hash, ".tmp");
+        try {
+            Files.write(temp, bytes);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.cosmetics.server.image;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Resized renditions produced for every product image. Sources narrower than a variant are never upscaled.
+ */
+public enum ImageVariant {
+    THUMBNAIL(160),
+    CARD(480),
+    DETAIL(1200);
+
+    private final int maxWidth;
+
+    ImageVariant(int maxWidth) {
+        this.maxWidth = maxWidth;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+
+    public String pathName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Public URL path of this variant, served by ImageController.
+     */
+    public String urlPath(String hash, ImageEncoding encoding) {
+        return "/api/images/" + hash + "/" + pathName() + "." + encoding.getExtension();
+    }
+
+    public static Optional<ImageVariant> fromPathName(String name) {
+        for (ImageVariant variant : values()) {
+            if (variant.pathName().equals(name)) {
+                return Optional.of(variant);
+            }
+        }
+        return Optional.empty();
+    }
+}
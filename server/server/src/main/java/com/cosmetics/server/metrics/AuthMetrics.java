@@ -0,0 +1,101 @@
+package com.cosmetics.server.metrics;
+
+import com.cosmetics.server.entity.ENUM.OtpPurposes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Meters for the auth, OTP and messaging paths.
+ * Tags are limited to enums and fixed outcome strings to keep cardinality low.
+ * Operations worth a trace span (outbound messaging, DB user lookup) are Observations,
+ * which record the same timer and also open a span.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+
+    public Timer.Sample startTimer() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void otpSend(OtpPurposes purpose, String outcome) {
+        Counter.builder("otp.send")
+                .description("OTP send requests by purpose and outcome")
+                .tag("purpose", purpose.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void otpVerify(OtpPurposes purpose, String outcome) {
+        Counter.builder("otp.verify")
+                .description("OTP verification attempts by purpose and outcome")
+                .tag("purpose", purpose.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * @param channel email or sms
+     * @param type    message template (otp, welcome, password_reset)
+     */
+    public Observation startMessageSend(String channel, String type) {
+        return Observation.createNotStarted("messaging.send", observationRegistry)
+                .contextualName(channel + " send " + type)
+                .lowCardinalityKeyValue("channel", channel)
+                .lowCardinalityKeyValue("type", type)
+                .start();
+    }
+
+    public void messageSent(Observation observation, Throwable error) {
+        observation.lowCardinalityKeyValue("outcome", error == null ? "success" : "failure");
+        if (error != null) {
+            observation.error(error);
+        }
+        observation.stop();
+    }
+
+    public void jwtParsed(Timer.Sample sample, String outcome) {
+        sample.stop(Timer.builder("auth.jwt.parse")
+                .description("JWT signature verification and claims parsing")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    /**
+     * @param result hit, miss or error
+     */
+    public void blacklistChecked(String result) {
+        Counter.builder("auth.jwt.blacklist.checks")
+                .description("Token blacklist lookups")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void jwtRejected(String reason) {
+        Counter.builder("auth.jwt.rejected")
+                .description("Bearer tokens rejected by the auth filter")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public <T> T observeUserLookup(Supplier<T> lookup) {
+        return Observation.createNotStarted("auth.user.lookup", observationRegistry)
+                .contextualName("auth user lookup")
+                .observe(lookup);
+    }
+}
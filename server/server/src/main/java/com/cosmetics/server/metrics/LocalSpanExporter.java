@@ -0,0 +1,195 @@
+package com.cosmetics.server.metrics;
+
+import com.cosmetics.server.DTO.response.SpanTimingResponse;
+import com.cosmetics.server.DTO.response.TraceBreakdownResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Span exporter that needs no collector: finished spans go to a bounded in-memory ring and,
+ * when app.tracing.local-exporter.file is set, are appended to that file as NDJSON.
+ * The ring backs the slow-request breakdown endpoint.
+ */
+@Component
+@Slf4j
+public class LocalSpanExporter implements SpanExporter {
+
+    private final int capacity;
+    private final ArrayDeque<SpanData> spans;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private BufferedWriter fileWriter;
+
+    public LocalSpanExporter(@Value("${app.tracing.local-exporter.capacity:10000}") int capacity,
+                             @Value("${app.tracing.local-exporter.file:}") String file) {
+        this.capacity = capacity;
+        this.spans = new ArrayDeque<>(capacity);
+
+        if (!file.isBlank()) {
+            try {
+                this.fileWriter = Files.newBufferedWriter(Path.of(file), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                log.warn("Span file {} is not writable, keeping spans in memory only", file, e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> batch) {
+        for (SpanData span : batch) {
+            if (spans.size() == capacity) {
+                spans.pollFirst();
+            }
+            spans.addLast(span);
+        }
+
+        if (fileWriter == null) {
+            return CompletableResultCode.ofSuccess();
+        }
+        try {
+            for (SpanData span : batch) {
+                writeLine(span);
+            }
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            log.debug("Failed to write spans to file: {}", e.getMessage());
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode flush() {
+        if (fileWriter != null) {
+            try {
+                fileWriter.flush();
+            } catch (IOException e) {
+                return CompletableResultCode.ofFailure();
+            }
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        if (fileWriter != null) {
+            try {
+                fileWriter.close();
+            } catch (IOException e) {
+                return CompletableResultCode.ofFailure();
+            } finally {
+                fileWriter = null;
+            }
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * Slowest requests still in the ring, each with the timing of every span recorded under it.
+     * A request is a local root span: no parent, or a parent propagated from another service.
+     */
+    public List<TraceBreakdownResponse> slowTraces(Duration threshold, int limit) {
+        List<SpanData> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(spans);
+        }
+
+        long thresholdNanos = threshold.toNanos();
+        Map<String, List<SpanData>> byTrace = new HashMap<>();
+        List<SpanData> roots = new ArrayList<>();
+        for (SpanData span : snapshot) {
+            byTrace.computeIfAbsent(span.getTraceId(), id -> new ArrayList<>()).add(span);
+            SpanContext parent = span.getParentSpanContext();
+            if ((!parent.isValid() || parent.isRemote()) && durationNanos(span) >= thresholdNanos) {
+                roots.add(span);
+            }
+        }
+
+        roots.sort(Comparator.comparingLong(LocalSpanExporter::durationNanos).reversed());
+        List<TraceBreakdownResponse> traces = new ArrayList<>(Math.min(limit, roots.size()));
+        for (SpanData root : roots.subList(0, Math.min(limit, roots.size()))) {
+            traces.add(breakdown(root, byTrace.get(root.getTraceId())));
+        }
+        return traces;
+    }
+
+    private TraceBreakdownResponse breakdown(SpanData root, List<SpanData> traceSpans) {
+        List<SpanTimingResponse> timings = traceSpans.stream()
+                .filter(span -> span != root)
+                .sorted(Comparator.comparingLong(SpanData::getStartEpochNanos))
+                .map(span -> SpanTimingResponse.builder()
+                        .spanId(span.getSpanId())
+                        .parentSpanId(span.getParentSpanId())
+                        .name(span.getName())
+                        .offsetMs(toMillis(span.getStartEpochNanos() - root.getStartEpochNanos()))
+                        .durationMs(toMillis(durationNanos(span)))
+                        .error(span.getStatus().getStatusCode() == StatusCode.ERROR)
+                        .build())
+                .toList();
+
+        return TraceBreakdownResponse.builder()
+                .traceId(root.getTraceId())
+                .name(root.getName())
+                .startedAt(Instant.EPOCH.plusNanos(root.getStartEpochNanos()))
+                .durationMs(toMillis(durationNanos(root)))
+                .spans(timings)
+                .build();
+    }
+
+    private void writeLine(SpanData span) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(fileWriter)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeStringField("traceId", span.getTraceId());
+            generator.writeStringField("spanId", span.getSpanId());
+            generator.writeStringField("parentSpanId", span.getParentSpanId());
+            generator.writeStringField("name", span.getName());
+            generator.writeStringField("kind", span.getKind().name());
+            generator.writeNumberField("startEpochNanos", span.getStartEpochNanos());
+            generator.writeNumberField("durationMs", toMillis(durationNanos(span)));
+            generator.writeStringField("status", span.getStatus().getStatusCode().name());
+            generator.writeObjectFieldStart("attributes");
+            span.getAttributes().forEach((key, value) -> {
+                try {
+                    generator.writeStringField(key.getKey(), String.valueOf(value));
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+        fileWriter.write('\n');
+    }
+
+    private static long durationNanos(SpanData span) {
+        return span.getEndEpochNanos() - span.getStartEpochNanos();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
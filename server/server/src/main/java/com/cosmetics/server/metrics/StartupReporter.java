@@ -0,0 +1,86 @@
+package com.cosmetics.server.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+
+/**
+ * Reports how this instance started: whether AOT-generated bean definitions and a class-data archive were used,
+ * next to Boot's own application.started.time / application.ready.time, plus the slowest startup steps.
+ * Dashboards can compare ready time across the tagged modes.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class StartupReporter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.startup.report-slowest:10}")
+    private int reportSlowest;
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        boolean aot = AotDetector.useGeneratedArtifacts();
+        String archive = classDataArchive();
+
+        Gauge.builder("application.startup.mode", () -> 1)
+                .description("Startup optimizations in effect for this instance")
+                .tag("aot", String.valueOf(aot))
+                .tag("class_data", archive)
+                .register(meterRegistry);
+
+        log.info("Ready in {} ms (AOT: {}, class-data archive: {})",
+                event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1, aot, archive);
+
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (startup instanceof BufferingApplicationStartup buffering && reportSlowest > 0) {
+            // getBufferedTimeline does not drain, /actuator/startup still sees every step
+            StartupTimeline timeline = buffering.getBufferedTimeline();
+            String slowest = timeline.getEvents().stream()
+                    .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                    .limit(reportSlowest)
+                    .map(step -> describe(step.getStartupStep()) + "=" + step.getDuration().toMillis() + "ms")
+                    .collect(Collectors.joining(", "));
+            log.info("Slowest startup steps: {}", slowest);
+        }
+    }
+
+    private static String describe(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return step.getName() + "[" + tag.getValue() + "]";
+            }
+        }
+        return step.getName();
+    }
+
+    /**
+     * aot_cache for a JEP 483 cache (-XX:AOTCache), appcds for a classic -XX:SharedArchiveFile, none otherwise.
+     */
+    private static String classDataArchive() {
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (argument.startsWith("-XX:AOTCache=")) {
+                return "aot_cache";
+            }
+            if (argument.startsWith("-XX:SharedArchiveFile=")) {
+                return "appcds";
+            }
+        }
+        return "none";
+    }
+}
@@ -0,0 +1,45 @@
+package com.cosmetics.server.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RedisTemplate that times every command it executes, tagged with the owning bean name.
+ * All opsForXxx() calls funnel through {@link #execute(RedisCallback, boolean, boolean)}.
+ */
+public class TimedRedisTemplate<K, V> extends RedisTemplate<K, V> {
+
+    private final Timer successTimer;
+    private final Timer errorTimer;
+
+    public TimedRedisTemplate(MeterRegistry meterRegistry, String templateName) {
+        this.successTimer = redisTimer(meterRegistry, templateName, "success");
+        this.errorTimer = redisTimer(meterRegistry, templateName, "error");
+    }
+
+    @Override
+    public <T> T execute(RedisCallback<T> action, boolean exposeConnection, boolean pipeline) {
+        long start = System.nanoTime();
+        Timer timer = errorTimer;
+        try {
+            T result = super.execute(action, exposeConnection, pipeline);
+            timer = successTimer;
+            return result;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    static Timer redisTimer(MeterRegistry meterRegistry, String templateName, String outcome) {
+        return Timer.builder("redis.command")
+                .description("Redis command latency per template bean")
+                .tag("template", templateName)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
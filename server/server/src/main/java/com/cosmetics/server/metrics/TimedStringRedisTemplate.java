@@ -0,0 +1,35 @@
+package com.cosmetics.server.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StringRedisTemplate counterpart of {@link TimedRedisTemplate}.
+ */
+public class TimedStringRedisTemplate extends StringRedisTemplate {
+
+    private final Timer successTimer;
+    private final Timer errorTimer;
+
+    public TimedStringRedisTemplate(MeterRegistry meterRegistry, String templateName) {
+        this.successTimer = TimedRedisTemplate.redisTimer(meterRegistry, templateName, "success");
+        this.errorTimer = TimedRedisTemplate.redisTimer(meterRegistry, templateName, "error");
+    }
+
+    @Override
+    public <T> T execute(RedisCallback<T> action, boolean exposeConnection, boolean pipeline) {
+        long start = System.nanoTime();
+        Timer timer = errorTimer;
+        try {
+            T result = super.execute(action, exposeConnection, pipeline);
+            timer = successTimer;
+            return result;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
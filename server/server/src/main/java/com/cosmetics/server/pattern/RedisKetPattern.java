@@ -1,6 +1,6 @@
 package com.cosmetics.server.pattern;
 
-class RedisKetPattern {
+public class RedisKetPattern {
     public static final String OTP_KEY_PATTERN = "OTP:%s:%s"; // OTP:{username}:{purpose}
     public static final String OTP_ATTEMPTS_PATTERN = "OTP_ATTEMPTS:%s:%s"; // OTP_ATTEMPTS:{username}:{purpose}
     public static final String OTP_BLOCK_PATTERN = "OTP_BLOCK:%s"; // OTP_BLOCK:{username}
@@ -15,14 +15,26 @@ class RedisKetPattern {
     public static final String BLACKLIST_TOKEN_PATTERN = "BLACKLIST_TOKEN:%s"; // BLACKLIST_TOKEN:{jti}
     public static final String BLACKLIST_REFRESH_TOKEN_PATTERN = "BLACKLIST_REFRESH:%s"; // BLACKLIST_REFRESH:{token_hash}
 
-    // User session
-    public static final String USER_SESSION_PATTERN = "USER_SESSION:%s"; // USER_SESSION:{user_id}
-    public static final String USER_DEVICE_PATTERN = "USER_DEVICE:%s:%s"; // USER_DEVICE:{user_id}:{device_id}
+    // User session / presence
+    public static final String USER_SESSION_PATTERN = "USER_SESSION:%s"; // USER_SESSION:{user_id} -> zset device_id by last seen
+    public static final String USER_DEVICE_PATTERN = "USER_DEVICE:%s:%s"; // USER_DEVICE:{user_id}:{device_id} -> hash
+    public static final String PRESENCE_ONLINE_KEY = "PRESENCE:ONLINE"; // zset user_id by last seen
+
+    // Refresh-token sessions
+    public static final String REFRESH_SESSIONS_PATTERN = "REFRESH_SESSIONS:%s"; // REFRESH_SESSIONS:{user_id} -> zset token_id by expiry
+    public static final String REFRESH_SESSION_SYNC_BUFFER = "REFRESH_SESSIONS:SYNC"; // hash: pending user_tokens writes
+
+    // Write-behind buffers for hot users columns (hash: user_id -> value)
+    public static final String USER_LAST_LOGIN_BUFFER = "USER_ACTIVITY:LAST_LOGIN";
+    public static final String WRITE_BEHIND_SNAPSHOT_PATTERN = "%s:FLUSHING:%d:%s"; // {buffer}:FLUSHING:{claimed_at}:{flush_id}
 
     // OTP resend cooldown
     public static final String OTP_RESEND_COOLDOWN_PATTERN = "OTP_RESEND:%s:%s"; // OTP_RESEND:{username}:{purpose}
     public static final String OTP_RESEND_COUNT_PATTERN = "OTP_RESEND_COUNT:%s:%s"; // OTP_RESEND_COUNT:{username}:{purpose}
 
+    // OAuth2 authorization-code flow: state issued with the authorization URL -> redirect URI it was issued for
+    public static final String OAUTH2_STATE_PATTERN = "OAUTH2_STATE:%s"; // OAUTH2_STATE:{state}
+
     // Challenge ID for 2FA
     public static final String CHALLENGE_PATTERN = "CHALLENGE:%s"; // CHALLENGE:{challenge_id}
 
@@ -59,6 +71,23 @@ class RedisKetPattern {
         return String.format(USER_SESSION_PATTERN, userId);
     }
 
+    public static String buildRefreshSessionsKey(Long userId) {
+        return String.format(REFRESH_SESSIONS_PATTERN, userId);
+    }
+
+    public static String buildUserDeviceKey(String userId, String deviceId) {
+        return String.format(USER_DEVICE_PATTERN, userId, deviceId);
+    }
+
+    public static String buildWriteBehindSnapshotKey(String bufferKey, long claimedAt, String flushId) {
+        return String.format(WRITE_BEHIND_SNAPSHOT_PATTERN, bufferKey, claimedAt, flushId);
+    }
+
+    // also matches the un-suffixed {buffer}:FLUSHING key of older releases
+    public static String buildWriteBehindFlushingMatch(String bufferKey) {
+        return bufferKey + ":FLUSHING*";
+    }
+
     public static String buildOtpResendCooldownKey(String username, String purpose) {
         return String.format(OTP_RESEND_COOLDOWN_PATTERN, username, purpose);
     }
@@ -67,6 +96,10 @@ class RedisKetPattern {
         return String.format(OTP_RESEND_COUNT_PATTERN, username, purpose);
     }
 
+    public static String buildOAuth2StateKey(String state) {
+        return String.format(OAUTH2_STATE_PATTERN, state);
+    }
+
     public static String buildChallengeKey(String challengeId) {
         return String.format(CHALLENGE_PATTERN, challengeId);
     }
@@ -0,0 +1,19 @@
+package com.cosmetics.server.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.cosmetics.CacheAccess")
+@Label("Cache Access")
+@Category({"Cosmetics", "Cache"})
+@Description("Spring Cache lookup, hit or miss")
+public class CacheAccessEvent extends jdk.jfr.Event {
+
+    @Label("Cache")
+    public String cache;
+
+    @Label("Hit")
+    public boolean hit;
+}
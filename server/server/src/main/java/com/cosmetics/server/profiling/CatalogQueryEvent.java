@@ -0,0 +1,38 @@
+package com.cosmetics.server.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+@Name("com.cosmetics.CatalogQuery")
+@Label("Catalog Query")
+@Category({"Cosmetics", "Catalog"})
+@Description("Catalog read or bulk operation against the database")
+public class CatalogQueryEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Rows")
+    public long rows;
+
+    /**
+     * Runs a catalog read inside the event; rows are counted only when the event is recorded.
+     */
+    public static <T> T record(String operation, Supplier<T> query, ToLongFunction<T> rows) {
+        CatalogQueryEvent event = new CatalogQueryEvent();
+        event.begin();
+        T result = query.get();
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.rows = rows.applyAsLong(result);
+            event.commit();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,16 @@
+package com.cosmetics.server.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.cosmetics.JwtValidation")
+@Label("JWT Validation")
+@Category({"Cosmetics", "Auth"})
+@Description("Signature check and claims parsing of one JWT")
+public class JwtValidationEvent extends jdk.jfr.Event {
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,19 @@
+package com.cosmetics.server.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.cosmetics.OtpVerify")
+@Label("OTP Verify")
+@Category({"Cosmetics", "Auth"})
+@Description("One OTP verification, including the Redis round trips")
+public class OtpVerifyEvent extends jdk.jfr.Event {
+
+    @Label("Purpose")
+    public String purpose;
+
+    @Label("Verified")
+    public boolean verified;
+}
@@ -0,0 +1,108 @@
+package com.cosmetics.server.profiling;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+@RequiredArgsConstructor
+class ProfilingCache implements Cache {
+
+    private final Cache delegate;
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        CacheAccessEvent event = begin();
+        ValueWrapper value = delegate.get(key);
+        commit(event, value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        CacheAccessEvent event = begin();
+        T value = delegate.get(key, type);
+        commit(event, value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // hit/miss is not observable through the loader API, record it as a miss only when the loader runs
+        boolean[] loaded = new boolean[1];
+        CacheAccessEvent event = begin();
+        T value = delegate.get(key, () -> {
+            loaded[0] = true;
+            return valueLoader.call();
+        });
+        commit(event, !loaded[0]);
+        return value;
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return delegate.retrieve(key);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return delegate.retrieve(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    private CacheAccessEvent begin() {
+        CacheAccessEvent event = new CacheAccessEvent();
+        event.begin();
+        return event;
+    }
+
+    private void commit(CacheAccessEvent event, boolean hit) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.cache = delegate.getName();
+            event.hit = hit;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.cosmetics.server.profiling;
+
+import com.cosmetics.server.DTO.response.ProfilingRecordingResponse;
+import com.cosmetics.server.exception.ProfilingException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * JDK Flight Recorder control: a rolling background recording bounded by age and size, plus
+ * on-demand recordings started and stopped over the admin API. No agent or restart needed.
+ * Stopped recordings are dumped to app.profiling.directory and removed once streamed back. A recording whose
+ * duration elapsed stops counting against max-active, and is closed (dropping its repository data) if nobody
+ * collects it within elapsed-retention.
+ */
+@Service
+@Slf4j
+public class ProfilingService {
+
+    private static final Pattern RECORDING_NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final String CONTINUOUS_NAME = "continuous";
+
+    @Value("${app.profiling.directory:${java.io.tmpdir}/cosmetics-jfr}")
+    private String directory;
+
+    // JFR settings for on-demand recordings: "default" (~1% overhead) or "profile" (~2%, more detail)
+    @Value("${app.profiling.settings:profile}")
+    private String settings;
+
+    @Value("${app.profiling.max-duration:PT10M}")
+    private Duration maxDuration;
+
+    @Value("${app.profiling.max-size-mb:128}")
+    private long maxSizeMb;
+
+    @Value("${app.profiling.max-active:2}")
+    private int maxActive;
+
+    @Value("${app.profiling.elapsed-retention:PT30M}")
+    private Duration elapsedRetention;
+
+    @Value("${app.profiling.continuous.enabled:true}")
+    private boolean continuousEnabled;
+
+    @Value("${app.profiling.continuous.max-age:PT30M}")
+    private Duration continuousMaxAge;
+
+    @Value("${app.profiling.continuous.max-size-mb:256}")
+    private long continuousMaxSizeMb;
+
+    private final Map<Long, Recording> recordings = new ConcurrentHashMap<>();
+    private Recording continuous;
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(Path.of(directory));
+        if (!continuousEnabled) {
+            return;
+        }
+
+        continuous = newRecording(CONTINUOUS_NAME, "default");
+        continuous.setMaxAge(continuousMaxAge);
+        continuous.setMaxSize(continuousMaxSizeMb * 1024 * 1024);
+        // cache lookups are the hottest custom event, keep only the slow ones in the always-on recording
+        continuous.enable(CacheAccessEvent.class).withThreshold(Duration.ofMillis(1)).withoutStackTrace();
+        continuous.start();
+        log.info("Continuous JFR recording started (max age {}, max size {} MB)", continuousMaxAge, continuousMaxSizeMb);
+    }
+
+    public synchronized ProfilingRecordingResponse start(String name, Duration duration) {
+        long running = recordings.values().stream()
+                .filter(recording -> recording.getState() == RecordingState.RUNNING)
+                .count();
+        if (running >= maxActive) {
+            throw new ProfilingException("At most " + maxActive + " on-demand recordings can be active");
+        }
+
+        String recordingName = name == null || name.isBlank() ? "on-demand" : name;
+        // the name becomes part of the dump file name
+        if (!RECORDING_NAME.matcher(recordingName).matches()) {
+            throw new ProfilingException("Recording name must match " + RECORDING_NAME.pattern());
+        }
+
+        Duration capped = duration == null || duration.compareTo(maxDuration) > 0 ? maxDuration : duration;
+        Recording recording = newRecording(recordingName, settings);
+        recording.setDuration(capped);
+        recording.setMaxSize(maxSizeMb * 1024 * 1024);
+        recording.start();
+        recordings.put(recording.getId(), recording);
+
+        log.info("JFR recording {} ({}) started for {}", recording.getId(), recording.getName(), capped);
+        return toResponse(recording);
+    }
+
+    public List<ProfilingRecordingResponse> list() {
+        List<ProfilingRecordingResponse> result = new ArrayList<>();
+        if (continuous != null) {
+            result.add(toResponse(continuous));
+        }
+        recordings.values().forEach(recording -> result.add(toResponse(recording)));
+        return result;
+    }
+
+    /**
+     * Stops the recording (if its duration has not already elapsed) and dumps it to disk.
+     */
+    public Optional<Path> stop(long id) {
+        Recording recording = recordings.remove(id);
+        if (recording == null) {
+            return Optional.empty();
+        }
+
+        try {
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            return Optional.of(dump(recording));
+        } finally {
+            recording.close();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.profiling.purge-interval-ms:60000}")
+    public void purgeElapsed() {
+        Instant cutoff = Instant.now().minus(elapsedRetention);
+        recordings.values().removeIf(recording -> {
+            Instant stoppedAt = recording.getStopTime();
+            if (recording.getState() != RecordingState.STOPPED || stoppedAt == null || stoppedAt.isAfter(cutoff)) {
+                return false;
+            }
+            log.info("Discarding JFR recording {} ({}), not collected within {}", recording.getId(),
+                    recording.getName(), elapsedRetention);
+            recording.close();
+            return true;
+        });
+    }
+
+    /**
+     * Snapshot of the rolling recording; the recording itself keeps running.
+     */
+    public Path snapshotContinuous() {
+        if (continuous == null) {
+            throw new ProfilingException("Continuous recording is disabled");
+        }
+        return dump(continuous);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        recordings.values().forEach(Recording::close);
+        recordings.clear();
+        if (continuous != null) {
+            continuous.close();
+        }
+    }
+
+    private Recording newRecording(String name, String configurationName) {
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration(configurationName));
+            recording.setName(name);
+            recording.setToDisk(true);
+            return recording;
+        } catch (IOException | ParseException e) {
+            throw new ProfilingException("Unknown JFR configuration: " + configurationName, e);
+        }
+    }
+
+    private Path dump(Recording recording) {
+        Path root = Path.of(directory).toAbsolutePath().normalize();
+        Path file = root.resolve(recording.getName() + "-" + recording.getId() + "-" + System.currentTimeMillis() + ".jfr")
+                .normalize();
+        if (!root.equals(file.getParent())) {
+            throw new ProfilingException("Refusing to dump JFR recording " + recording.getId() + " outside " + root);
+        }
+        try {
+            recording.dump(file);
+            return file;
+        } catch (IOException e) {
+            throw new ProfilingException("Failed to dump JFR recording " + recording.getId(), e);
+        }
+    }
+
+    private ProfilingRecordingResponse toResponse(Recording recording) {
+        return ProfilingRecordingResponse.builder()
+                .id(recording.getId())
+                .name(recording.getName())
+                .state(recording.getState().name())
+                .startedAt(recording.getStartTime())
+                .duration(recording.getDuration())
+                .maxAge(recording.getMaxAge())
+                .maxSizeBytes(recording.getMaxSize())
+                .recordedBytes(recording.getSize())
+                .build();
+    }
+}
@@ -0,0 +1,10 @@
+package com.cosmetics.server.repository;
+
+import com.cosmetics.server.entity.BrandProductSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BrandProductSummaryRepository extends JpaRepository<BrandProductSummary, Long> {
+    // listings page with Sort.by("brandName"), idx_brand_product_summary_name
+}
@@ -0,0 +1,53 @@
+package com.cosmetics.server.repository;
+
+import com.cosmetics.server.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    // catalog finders go through the query cache; results are product ids resolved from the product region,
+    // and any write to the products table invalidates them
+    String CATALOG_QUERY_REGION = "catalog-queries";
+
+    // brand fetched in the same query, a page of products would otherwise load brands one by one
+    @EntityGraph(attributePaths = "brand")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CATALOG_QUERY_REGION)
+    })
+    Page<Product> findAllBy(Pageable pageable);
+
+    @EntityGraph(attributePaths = "brand")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CATALOG_QUERY_REGION)
+    })
+    Optional<Product> findWithBrandById(Long id);
+
+    // primary key lookup of the version stamp only, enough to answer a conditional GET
+    @Query("SELECT p.version FROM Product p WHERE p.id = :id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CATALOG_QUERY_REGION)
+    })
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT p.imageUrl FROM Product p WHERE p.id = :id")
+    Optional<String> findImageUrlById(@Param("id") Long id);
+
+    @Query("SELECT p.id FROM Product p WHERE p.imageUrl IS NOT NULL AND p.imageHash IS NULL ORDER BY p.id")
+    List<Long> findIdsPendingImageIngest(Pageable pageable);
+}
@@ -1,36 +1,47 @@
 package com.cosmetics.server.repository;
 
 import com.cosmetics.server.entity.auth.Token;
-import io.lettuce.core.dynamic.annotation.Param;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Durable record of refresh sessions. Active-session checks and per-user session lists are served from Redis
+ * (RefreshSessionService); these queries are for the write-behind sync and the Redis-unavailable fallback.
+ */
 @Repository
 public interface UserTokenRepository extends JpaRepository<Token, Long> {
     Optional<Token> findByRefreshTokenHashAndRevokedFalse(String refreshTokenHash);
-    List<Token>findAllByUserIdAndRevokedFalse(Long userId);
-    List<Token>findAllByUserId(Long userId);
+    // idx_user_tokens_token_id
+    Optional<Token> findByTokenIdAndRevokedFalse(String tokenId);
+    List<Token> findAllByUserId(Long userId);
 
-    @Query("SELECT ut FROM Token ut WHERE ut.userId = :userId AND ut.revoked = false AND ut.expiresAt > :now")
-    List<Token> findActiveTokensByUserId(@Param("userId") Long userId,
-                                        @Param("now")LocalDateTime now);
+    @Modifying
+    @Query("UPDATE Token tk SET tk.revoked = true WHERE tk.tokenId = :tokenId AND tk.revoked = false")
+    int revokeByTokenId(@Param("tokenId") String tokenId);
 
     @Modifying
-    @Query("update Token tk SET tk.revoked = true WHERE tk.userId = :userId AND tk.expiresAt < :now")
-    void revokeAllUserTokens(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+    @Query("UPDATE Token tk SET tk.revoked = true WHERE tk.tokenId IN :tokenIds AND tk.revoked = false")
+    int revokeByTokenIds(@Param("tokenIds") Collection<String> tokenIds);
 
+    /**
+     * Every session the user has open ("log out everywhere"), issued up to {@code issuedBefore}.
+     */
     @Modifying
-    @Query("select count(tk) from Token tk where tk.userId = :userId AND tk.revoked = false ")
-    void revokedExpiredTokens(@Param("now") LocalDateTime now);
+    @Query("UPDATE Token tk SET tk.revoked = true "
+            + "WHERE tk.userId = :userId AND tk.revoked = false AND tk.createAt <= :issuedBefore")
+    int revokeAllUserTokens(@Param("userId") Long userId, @Param("issuedBefore") LocalDateTime issuedBefore);
 
-    @Query("select count(tk) from Token tk where tk.userId = :userId AND tk.revoked = false")
-    long countActiveTokensByUserId(@Param("userId") Long userId);
+    @Modifying
+    @Query("UPDATE Token tk SET tk.revoked = true WHERE tk.revoked = false AND tk.expiresAt < :now")
+    int revokeExpiredTokens(@Param("now") LocalDateTime now);
 
     @Modifying
     @Query("delete from Token tk WHERE tk.expiresAt < :cutoffDate")
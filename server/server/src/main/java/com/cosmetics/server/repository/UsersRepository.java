@@ -3,41 +3,63 @@ package com.cosmetics.server.repository;
 import com.cosmetics.server.entity.ENUM.AuthProvider;
 import com.cosmetics.server.entity.ENUM.STATUS;
 import com.cosmetics.server.entity.auth.Users;
-import io.lettuce.core.dynamic.annotation.Param;
-
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface UsersRepository extends JpaRepository<Users, Long> {
+    // uk_users_email
     Optional<Users> findByEmail(String email);
+    // uk_users_phone
     Optional<Users> findByPhoneNumber(String phoneNumber);
-    @Query("SELECT u from Users u WHERE u.email = :username OR u.phoneNumber = :username")
-    Optional<Users> findByUsername(@Param("username") String username);
+    // unique index on username (JWT subject); read-only so the per-request lookup in JwtAuthFilter uses a replica
+    @Transactional(readOnly = true)
+    Optional<Users> findByUsername(String username);
 
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     boolean existsByPhoneNumber(String phoneNumber);
 
+    // uk_users_provider
+    @Query("SELECT u FROM Users u WHERE u.authProvider = :provider AND u.providerID = :providerId")
     Optional<Users> findByProviderAndProviderId(@Param("provider") AuthProvider provider,
                                                 @Param("providerId") String providerId);
 
-    @Query("SELECT u from Users u where u.status = :status")
-    Optional<Users> findByAllByStatus(@Param("status") STATUS status);
+    // idx_users_status_created_at
+    Page<Users> findAllByStatus(STATUS status, Pageable pageable);
 
+    // idx_users_created_at
     @Query("SELECT u FROM Users u WHERE u.createdAt >= :fromDate")
-    Optional<Users> findRecentUsers(@Param("fromDate")LocalDateTime fromDate);
+    Slice<Users> findRecentUsers(@Param("fromDate") LocalDateTime fromDate, Pageable pageable);
+
+    @Query("SELECT u FROM Users u WHERE u.createdAt >= :fromDate ORDER BY u.createdAt")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Users> streamRecentUsers(@Param("fromDate") LocalDateTime fromDate);
 
+    long countByCreatedAtGreaterThanEqual(LocalDateTime fromDate);
+
+    // admin status changes (ban, delete) only; online/offline presence lives in Redis (PresenceService)
+    // and last_login is written behind by UserActivityBuffer
     @Modifying
     @Query("UPDATE Users u SET u.status = :status WHERE u.id = :userId")
     void updateUserStatus(@Param("userId") Long userId, @Param("status") STATUS status);
-
-    @Modifying
-    @Query("UPDATE Users u SET u.lastLoginAt = :lastLoginAt WHERE u.id = :userId")
-    void updateLastLoginAt(@Param("userId") Long userId, @Param("lastLoginAt") LocalDateTime lastLoginAt);
 }
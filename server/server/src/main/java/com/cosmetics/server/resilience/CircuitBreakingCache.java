@@ -0,0 +1,95 @@
+package com.cosmetics.server.resilience;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+@RequiredArgsConstructor
+class CircuitBreakingCache implements Cache {
+
+    private final Cache delegate;
+    private final RedisGuard redisGuard;
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return redisGuard.call(() -> delegate.get(key), () -> null);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return redisGuard.call(() -> delegate.get(key, type), () -> null);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return redisGuard.call(() -> delegate.get(key, valueLoader), () -> {
+            try {
+                return valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return delegate.retrieve(key);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return delegate.retrieve(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        redisGuard.call(() -> {
+            delegate.put(key, value);
+            return null;
+        }, () -> null);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return redisGuard.call(() -> delegate.putIfAbsent(key, value), () -> null);
+    }
+
+    @Override
+    public void evict(Object key) {
+        redisGuard.call(() -> {
+            delegate.evict(key);
+            return null;
+        }, () -> null);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return redisGuard.call(() -> delegate.evictIfPresent(key), () -> false);
+    }
+
+    @Override
+    public void clear() {
+        redisGuard.call(() -> {
+            delegate.clear();
+            return null;
+        }, () -> null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        return redisGuard.call(() -> delegate.invalidate(), () -> false);
+    }
+}
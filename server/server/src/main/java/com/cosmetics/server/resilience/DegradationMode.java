@@ -0,0 +1,12 @@
+package com.cosmetics.server.resilience;
+
+public enum DegradationMode {
+    /**
+     * Keep serving from the in-process fallback store and reconcile into Redis once it is back.
+     */
+    FAIL_OPEN,
+    /**
+     * Refuse the operation with {@link com.cosmetics.server.exception.RedisUnavailableException}.
+     */
+    FAIL_CLOSED
+}
@@ -0,0 +1,101 @@
+package com.cosmetics.server.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded in-process key/value store with per-entry TTL, used while Redis is unavailable; one per subsystem, so a
+ * flood in one (e.g. OTP sends) cannot push out another's entries.
+ * Deletes are kept as tombstones so they can be replayed into Redis on recovery.
+ * When full, expired entries are purged first, then the entry closest to expiry is dropped. A store created
+ * without eviction (revocations) only purges expired entries and otherwise grows past the bound.
+ */
+@Slf4j
+class LocalFallbackStore {
+
+    record Entry(Object value, long expiresAtMillis) {
+
+        boolean isTombstone() {
+            return value == null;
+        }
+
+        long remainingMillis() {
+            return expiresAtMillis - System.currentTimeMillis();
+        }
+    }
+
+    private final String name;
+    private final int maxEntries;
+    private final boolean evictable;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    LocalFallbackStore(String name, int maxEntries, boolean evictable) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.evictable = evictable;
+    }
+
+    Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.remainingMillis() <= 0) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    // writes only happen during an outage; serializing them keeps the size check and the insert together
+    synchronized void put(String key, Object value, Duration ttl) {
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            makeRoom();
+        }
+        entries.put(key, new Entry(value, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    void tombstone(String key, Duration ttl) {
+        put(key, null, ttl);
+    }
+
+    void remove(String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes the entry only if it was not replaced in the meantime.
+     */
+    void remove(String key, Entry entry) {
+        entries.remove(key, entry);
+    }
+
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    List<Map.Entry<String, Entry>> snapshot() {
+        return new ArrayList<>(entries.entrySet());
+    }
+
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(e -> e.getValue().expiresAtMillis() <= now);
+        if (entries.size() < maxEntries) {
+            return;
+        }
+        if (!evictable) {
+            log.warn("Local fallback store {} holds {} entries, over its bound of {}", name, entries.size(), maxEntries);
+            return;
+        }
+        entries.entrySet().stream()
+                .min(Map.Entry.comparingByValue((a, b) -> Long.compare(a.expiresAtMillis(), b.expiresAtMillis())))
+                .ifPresent(oldest -> entries.remove(oldest.getKey(), oldest.getValue()));
+    }
+}
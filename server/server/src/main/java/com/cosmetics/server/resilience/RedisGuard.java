@@ -0,0 +1,72 @@
+package com.cosmetics.server.resilience;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker shared by every guarded Redis call. Connection failures, command timeouts and slow calls
+ * open it; while open, calls go straight to their fallback instead of waiting on connect timeouts.
+ */
+@Component
+@Slf4j
+public class RedisGuard {
+
+    private final CircuitBreaker circuitBreaker;
+
+    public RedisGuard(MeterRegistry meterRegistry,
+                      @Value("${app.redis.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+                      @Value("${app.redis.circuit-breaker.slow-call-threshold:PT0.5S}") Duration slowCallThreshold,
+                      @Value("${app.redis.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+                      @Value("${app.redis.circuit-breaker.open-duration:PT10S}") Duration openDuration) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(Math.min(10, slidingWindowSize))
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(slowCallThreshold)
+                .slowCallRateThreshold(failureRateThreshold)
+                .waitDurationInOpenState(openDuration)
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                // Spring translates Lettuce connection errors and timeouts into DataAccessException
+                .recordExceptions(DataAccessException.class)
+                .build();
+
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+
+        this.circuitBreaker = registry.circuitBreaker("redis");
+        this.circuitBreaker.getEventPublisher()
+                .onStateTransition(event -> log.warn("Redis circuit breaker {}", event.getStateTransition()));
+    }
+
+    /**
+     * Runs the Redis call, or the fallback when the breaker is open or the call failed on the Redis side.
+     * Other exceptions propagate unchanged.
+     */
+    public <T> T call(Supplier<T> redisCall, Supplier<T> fallback) {
+        try {
+            return circuitBreaker.executeSupplier(redisCall);
+        } catch (CallNotPermittedException e) {
+            return fallback.get();
+        } catch (DataAccessException e) {
+            log.debug("Redis call failed, using fallback: {}", e.getMessage());
+            return fallback.get();
+        }
+    }
+
+    public boolean isClosed() {
+        return circuitBreaker.getState() == CircuitBreaker.State.CLOSED;
+    }
+}
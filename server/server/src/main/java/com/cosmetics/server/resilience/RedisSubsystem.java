@@ -0,0 +1,10 @@
+package com.cosmetics.server.resilience;
+
+/**
+ * Redis-backed state that has its own behaviour while Redis is unavailable.
+ */
+public enum RedisSubsystem {
+    OTP,
+    RATE_LIMIT,
+    TOKEN_BLACKLIST
+}
@@ -0,0 +1,161 @@
+package com.cosmetics.server.resilience;
+
+import com.cosmetics.server.exception.RedisUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Redis value operations behind {@link RedisGuard}, with per-subsystem degradation.
+ * <p>
+ * While Redis is unavailable, FAIL_OPEN subsystems read and write a bounded {@link LocalFallbackStore};
+ * FAIL_CLOSED subsystems throw {@link RedisUnavailableException}, though their writes are still kept locally for
+ * replay. Each subsystem has its own local store, and token blacklist entries are never evicted from theirs.
+ * Local entries win over Redis until {@link #reconcile()} has replayed them (values with their remaining TTL,
+ * deletes as DEL) once the breaker closes.
+ * State is per instance, so during an outage each node only sees its own local writes.
+ */
+@Component
+@Slf4j
+public class ResilientRedisStore {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisGuard redisGuard;
+    private final MeterRegistry meterRegistry;
+    private final Map<RedisSubsystem, LocalFallbackStore> localStores = new EnumMap<>(RedisSubsystem.class);
+    private final Duration tombstoneTtl;
+    private final Map<RedisSubsystem, DegradationMode> modes = new EnumMap<>(RedisSubsystem.class);
+
+    public ResilientRedisStore(RedisTemplate<String, Object> redisTemplate,
+                               RedisGuard redisGuard,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.redis.fallback.max-entries:10000}") int maxEntries,
+                               @Value("${app.redis.fallback.tombstone-ttl:PT24H}") Duration tombstoneTtl,
+                               @Value("${app.redis.degradation.otp:FAIL_OPEN}") DegradationMode otpMode,
+                               @Value("${app.redis.degradation.rate-limit:FAIL_OPEN}") DegradationMode rateLimitMode,
+                               @Value("${app.redis.degradation.token-blacklist:FAIL_CLOSED}") DegradationMode blacklistMode) {
+        this.redisTemplate = redisTemplate;
+        this.redisGuard = redisGuard;
+        this.meterRegistry = meterRegistry;
+        this.tombstoneTtl = tombstoneTtl;
+        for (RedisSubsystem subsystem : RedisSubsystem.values()) {
+            // a dropped revocation would let a logged-out token back in once Redis returns
+            localStores.put(subsystem, new LocalFallbackStore(subsystem.name(), maxEntries,
+                    subsystem != RedisSubsystem.TOKEN_BLACKLIST));
+        }
+        modes.put(RedisSubsystem.OTP, otpMode);
+        modes.put(RedisSubsystem.RATE_LIMIT, rateLimitMode);
+        modes.put(RedisSubsystem.TOKEN_BLACKLIST, blacklistMode);
+    }
+
+    public DegradationMode mode(RedisSubsystem subsystem) {
+        return modes.get(subsystem);
+    }
+
+    public Object get(RedisSubsystem subsystem, String key) {
+        LocalFallbackStore.Entry local = localStores.get(subsystem).get(key);
+        if (local != null) {
+            return local.value();
+        }
+        return redisGuard.call(() -> redisTemplate.opsForValue().get(key), () -> {
+            degraded(subsystem, "read");
+            return null;
+        });
+    }
+
+    public boolean hasKey(RedisSubsystem subsystem, String key) {
+        return get(subsystem, key) != null;
+    }
+
+    public void set(RedisSubsystem subsystem, String key, Object value, Duration ttl) {
+        LocalFallbackStore localStore = localStores.get(subsystem);
+        redisGuard.call(() -> {
+            redisTemplate.opsForValue().set(key, value, ttl);
+            localStore.remove(key);
+            return null;
+        }, () -> {
+            // kept for replay even when FAIL_CLOSED rejects the call, so e.g. a revocation is not lost
+            localStore.put(key, value, ttl);
+            degraded(subsystem, "write");
+            return null;
+        });
+    }
+
+    public void delete(RedisSubsystem subsystem, String key) {
+        LocalFallbackStore localStore = localStores.get(subsystem);
+        redisGuard.call(() -> {
+            redisTemplate.delete(key);
+            localStore.remove(key);
+            return null;
+        }, () -> {
+            localStore.tombstone(key, tombstoneTtl);
+            degraded(subsystem, "write");
+            return null;
+        });
+    }
+
+    /**
+     * Replays writes made during an outage into Redis. Stops at the first failure and retries on the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.redis.fallback.reconcile-interval-ms:5000}")
+    public void reconcile() {
+        if (!redisGuard.isClosed()) {
+            return;
+        }
+        for (LocalFallbackStore localStore : localStores.values()) {
+            if (!localStore.isEmpty() && !reconcile(localStore)) {
+                return;
+            }
+        }
+    }
+
+    private boolean reconcile(LocalFallbackStore localStore) {
+        int replayed = 0;
+        for (Map.Entry<String, LocalFallbackStore.Entry> local : localStore.snapshot()) {
+            String key = local.getKey();
+            LocalFallbackStore.Entry entry = local.getValue();
+            long remaining = entry.remainingMillis();
+
+            boolean written = redisGuard.call(() -> {
+                if (entry.isTombstone()) {
+                    redisTemplate.delete(key);
+                } else if (remaining > 0) {
+                    redisTemplate.opsForValue().set(key, entry.value(), Duration.ofMillis(remaining));
+                }
+                return true;
+            }, () -> false);
+
+            if (!written) {
+                log.warn("Redis unavailable again, {} local entries left to reconcile", localStore.size());
+                return false;
+            }
+            localStore.remove(key, entry);
+            replayed++;
+        }
+        log.info("Reconciled {} local fallback entries into Redis", replayed);
+        return true;
+    }
+
+    private void degraded(RedisSubsystem subsystem, String operation) {
+        DegradationMode mode = modes.get(subsystem);
+        Counter.builder("redis.degraded")
+                .description("Redis operations served by the degradation layer")
+                .tag("subsystem", subsystem.name())
+                .tag("operation", operation)
+                .tag("mode", mode.name())
+                .register(meterRegistry)
+                .increment();
+
+        if (mode == DegradationMode.FAIL_CLOSED) {
+            throw new RedisUnavailableException(subsystem + " is temporarily unavailable");
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.cosmetics.server.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local copy of one provider's JWKS (RSA keys only).
+ * <p>
+ * Keys are refreshed ahead of expiry by {@link #refreshIfStale()}, so verification normally never waits on the
+ * network. Concurrent fetches are collapsed into one in-flight request. If the provider is unreachable the last
+ * good key set keeps being served for up to {@code maxStale} past its expiry.
+ * <p>
+ * Fetches triggered by an unknown {@code kid} are spaced by {@code unknownKidBackoff} from the last attempt,
+ * successful or not, so tokens with made-up kids cannot hammer the provider while it is failing.
+ */
+@Slf4j
+public class JwksCache {
+
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    private record KeySet(Map<String, PublicKey> keys, Instant fetchedAt, Instant expiresAt) {
+    }
+
+    private final String provider;
+    private final URI jwksUri;
+    private final Duration defaultTtl;
+    private final Duration refreshAhead;
+    private final Duration maxStale;
+    private final Duration unknownKidBackoff;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    private final AtomicReference<KeySet> current = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<KeySet>> inFlight = new AtomicReference<>();
+    private volatile Instant lastAttemptAt = Instant.MIN;
+
+    public JwksCache(String provider, URI jwksUri, Duration defaultTtl, Duration refreshAhead, Duration maxStale,
+                     Duration unknownKidBackoff, HttpClient httpClient, ObjectMapper objectMapper) {
+        this(provider, jwksUri, defaultTtl, refreshAhead, maxStale, unknownKidBackoff, httpClient, objectMapper,
+                Clock.systemUTC());
+    }
+
+    JwksCache(String provider, URI jwksUri, Duration defaultTtl, Duration refreshAhead, Duration maxStale,
+              Duration unknownKidBackoff, HttpClient httpClient, ObjectMapper objectMapper, Clock clock) {
+        this.provider = provider;
+        this.jwksUri = jwksUri;
+        this.defaultTtl = defaultTtl;
+        this.refreshAhead = refreshAhead;
+        this.maxStale = maxStale;
+        this.unknownKidBackoff = unknownKidBackoff;
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    /**
+     * Key for a token's {@code kid}. Only an unknown kid (the provider rotated keys) or an empty cache
+     * waits on a fetch, and unknown kids refetch at most once per {@code unknownKidBackoff}.
+     */
+    public PublicKey getKey(String kid) {
+        KeySet keySet = current.get();
+        if (keySet == null || isUnusable(keySet)) {
+            keySet = fetch().join();
+        }
+
+        PublicKey key = keySet.keys().get(kid);
+        if (key == null && clock.instant().isAfter(lastAttemptAt.plus(unknownKidBackoff))) {
+            key = fetch().join().keys().get(kid);
+        }
+        return key;
+    }
+
+    /**
+     * Background refresh: fetches once the key set is within {@code refreshAhead} of expiry.
+     * Failures are logged and the current keys stay in use.
+     */
+    public void refreshIfStale() {
+        KeySet keySet = current.get();
+        if (keySet != null && clock.instant().isBefore(keySet.expiresAt().minus(refreshAhead))) {
+            return;
+        }
+        fetch().exceptionally(e -> {
+            log.warn("Background JWKS refresh for {} failed, keeping cached keys: {}", provider, e.getMessage());
+            return null;
+        });
+    }
+
+    private boolean isUnusable(KeySet keySet) {
+        return clock.instant().isAfter(keySet.expiresAt().plus(maxStale));
+    }
+
+    /**
+     * Single-flight fetch: callers arriving while a fetch is running share its result.
+     */
+    private CompletableFuture<KeySet> fetch() {
+        CompletableFuture<KeySet> running = inFlight.get();
+        if (running != null) {
+            return running;
+        }
+
+        CompletableFuture<KeySet> mine = new CompletableFuture<>();
+        if (!inFlight.compareAndSet(null, mine)) {
+            CompletableFuture<KeySet> other = inFlight.get();
+            return other != null ? other : fetch();
+        }
+
+        lastAttemptAt = clock.instant();
+        HttpRequest request = HttpRequest.newBuilder(jwksUri).timeout(Duration.ofSeconds(5)).GET().build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(this::parse)
+                .whenComplete((keySet, error) -> {
+                    if (error != null) {
+                        inFlight.set(null);
+                        mine.completeExceptionally(error);
+                        return;
+                    }
+                    // publish before clearing the slot, so a caller never sees neither and fetches again
+                    current.set(keySet);
+                    inFlight.set(null);
+                    log.debug("Fetched {} JWKS keys for {}, valid until {}", keySet.keys().size(), provider, keySet.expiresAt());
+                    mine.complete(keySet);
+                });
+        return mine;
+    }
+
+    private KeySet parse(HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("JWKS endpoint returned " + response.statusCode());
+        }
+
+        try {
+            Map<String, PublicKey> keys = new HashMap<>();
+            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+            for (JsonNode jwk : objectMapper.readTree(response.body()).path("keys")) {
+                if (!"RSA".equals(jwk.path("kty").asText()) || !jwk.hasNonNull("kid")) {
+                    continue;
+                }
+                BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode(jwk.get("n").asText()));
+                BigInteger exponent = new BigInteger(1, Base64.getUrlDecoder().decode(jwk.get("e").asText()));
+                keys.put(jwk.get("kid").asText(), keyFactory.generatePublic(new RSAPublicKeySpec(modulus, exponent)));
+            }
+
+            Instant now = clock.instant();
+            return new KeySet(Map.copyOf(keys), now, now.plus(ttl(response)));
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid JWKS from " + jwksUri, e);
+        }
+    }
+
+    private Duration ttl(HttpResponse<String> response) {
+        return response.headers().firstValue("Cache-Control")
+                .map(MAX_AGE::matcher)
+                .filter(Matcher::find)
+                .map(matcher -> Duration.ofSeconds(Long.parseLong(matcher.group(1))))
+                .orElse(defaultTtl);
+    }
+}
@@ -2,8 +2,14 @@ package com.cosmetics.server.security;
 
 import com.cosmetics.server.entity.ENUM.Role;
 import com.cosmetics.server.entity.auth.Users;
+import com.cosmetics.server.metrics.AuthMetrics;
 import com.cosmetics.server.repository.UsersRepository;
-import com.cosmetics.server.service.JwtService;
+import com.cosmetics.server.service.JwtConfig;
+import com.cosmetics.server.service.PresenceService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.security.SignatureException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -28,8 +34,10 @@ import java.util.stream.Collectors;
 @Slf4j
 public class JwtAuthFilter extends OncePerRequestFilter {
 
-    private final JwtService jwtService;
+    private final JwtConfig jwtService;
     private final UsersRepository userRepository;
+    private final PresenceService presenceService;
+    private final AuthMetrics authMetrics;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -37,7 +45,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         final String jwt;
         final String username;
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
@@ -45,12 +53,14 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            username = jwtService.extractUserName(jwt);
+            // parsed once: signature, expiry and subject all come from these claims
+            Claims claims = jwtService.parseClaims(jwt);
+            username = claims.getSubject();
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                Users user = userRepository.findByUsername(username).orElse(null);
+                Users user = authMetrics.observeUserLookup(() -> userRepository.findByUsername(username).orElse(null));
 
-                if (user != null && jwtService.isTokenValid(jwt, user)) {
+                if (user != null && jwtService.isTokenValid(jwt, claims, user)) {
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(
                                     username,
@@ -60,14 +70,36 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+
+                    presenceService.heartbeat(user.getId(), getDeviceId(request),
+                            request.getRemoteAddr(), request.getHeader("User-Agent"));
                 }
             }
         } catch (Exception e) {
+            authMetrics.jwtRejected(rejectionReason(e));
             log.debug("JWT validation failed: {}", e.getMessage());
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private String rejectionReason(Exception e) {
+        if (e instanceof ExpiredJwtException) return "expired";
+        if (e instanceof SignatureException) return "signature";
+        if (e instanceof MalformedJwtException) return "malformed";
+        return "other";
+    }
+
+    private String getDeviceId(HttpServletRequest request) {
+        String deviceId = request.getHeader("X-Device-Id");
+        if (deviceId != null && !deviceId.isBlank()) {
+            return deviceId.length() > 64 ? deviceId.substring(0, 64) : deviceId;
+        }
+        // clients without a device id are grouped by user agent
+        String userAgent = request.getHeader("User-Agent");
+        return "ua-" + Integer.toHexString(userAgent == null ? 0 : userAgent.hashCode());
+    }
+
     private Collection<? extends GrantedAuthority> getAuthorities(Set<Role> roles) {
         return roles.stream()
                 .map(role -> new SimpleGrantedAuthority("ROLE_" + role.name()))
@@ -0,0 +1,38 @@
+package com.cosmetics.server.security;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Wraps the real encoder so each bcrypt hash/verify shows up as its own span and timer ("auth.password").
+ */
+@RequiredArgsConstructor
+public class ObservedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ObservationRegistry observationRegistry;
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return observation("encode").observe(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Boolean matched = observation("matches").observe(() -> delegate.matches(rawPassword, encodedPassword));
+        return Boolean.TRUE.equals(matched);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private Observation observation(String operation) {
+        return Observation.createNotStarted("auth.password", observationRegistry)
+                .contextualName("password " + operation)
+                .lowCardinalityKeyValue("operation", operation);
+    }
+}
@@ -0,0 +1,145 @@
+package com.cosmetics.server.security;
+
+import com.cosmetics.server.exception.InvalidIdTokenException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verifies social-login ID tokens locally against the provider's cached JWKS.
+ * <p>
+ * A token that verified once is cached by its SHA-256 until it expires, so retries and double submits
+ * skip the RSA check. Key refresh happens in the background (see {@link JwksCache}).
+ */
+@Component
+@Slf4j
+public class ProviderTokenVerifier {
+
+    private static final Set<String> GOOGLE_ISSUERS = Set.of("accounts.google.com", "https://accounts.google.com");
+
+    private final String googleClientId;
+    private final int maxCachedTokens;
+    private final JwksCache googleKeys;
+    private final JwtParser googleParser;
+    private final Map<String, VerifiedIdToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    public ProviderTokenVerifier(@Value("${app.oauth2.google.client-id:}") String googleClientId,
+                                 @Value("${app.oauth2.google.jwks-uri:https://www.googleapis.com/oauth2/v3/certs}") URI googleJwksUri,
+                                 @Value("${app.oauth2.jwks.default-ttl:PT1H}") Duration defaultTtl,
+                                 @Value("${app.oauth2.jwks.refresh-ahead:PT5M}") Duration refreshAhead,
+                                 @Value("${app.oauth2.jwks.max-stale:PT24H}") Duration maxStale,
+                                 @Value("${app.oauth2.jwks.unknown-kid-backoff:PT30S}") Duration unknownKidBackoff,
+                                 @Value("${app.oauth2.verified-token-cache-size:10000}") int maxCachedTokens) {
+        this.googleClientId = googleClientId;
+        this.maxCachedTokens = maxCachedTokens;
+
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(3)).build();
+        this.googleKeys = new JwksCache("google", googleJwksUri, defaultTtl, refreshAhead, maxStale,
+                unknownKidBackoff, httpClient, new ObjectMapper());
+
+        this.googleParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        PublicKey key = googleKeys.getKey(header.getKeyId());
+                        if (key == null) {
+                            throw new InvalidIdTokenException("Unknown signing key " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .requireAudience(googleClientId)
+                .setAllowedClockSkewSeconds(60)
+                .build();
+    }
+
+    @PostConstruct
+    public void warmUp() {
+        if (!googleClientId.isBlank()) {
+            googleKeys.refreshIfStale();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.oauth2.jwks.refresh-check-interval-ms:60000}")
+    public void refresh() {
+        if (!googleClientId.isBlank()) {
+            googleKeys.refreshIfStale();
+        }
+        Instant now = Instant.now();
+        verifiedTokens.values().removeIf(token -> token.getExpiresAt().isBefore(now));
+    }
+
+    public VerifiedIdToken verifyGoogleIdToken(String idToken) {
+        if (googleClientId.isBlank()) {
+            throw new InvalidIdTokenException("Google sign-in is not configured");
+        }
+
+        String hash = sha256(idToken);
+        VerifiedIdToken cached = verifiedTokens.get(hash);
+        if (cached != null && cached.getExpiresAt().isAfter(Instant.now())) {
+            return cached;
+        }
+
+        Claims claims;
+        try {
+            claims = googleParser.parseClaimsJws(idToken).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidIdTokenException("Invalid Google ID token", e);
+        } catch (CompletionException e) {
+            log.warn("Google signing keys unavailable: {}", e.getMessage());
+            throw new InvalidIdTokenException("Google signing keys are unavailable", e);
+        }
+
+        if (!GOOGLE_ISSUERS.contains(claims.getIssuer())) {
+            throw new InvalidIdTokenException("Unexpected issuer " + claims.getIssuer());
+        }
+
+        VerifiedIdToken verified = VerifiedIdToken.builder()
+                .provider("google")
+                .subject(claims.getSubject())
+                .email(claims.get("email", String.class))
+                .emailVerified(Boolean.TRUE.equals(claims.get("email_verified", Boolean.class)))
+                .name(claims.get("name", String.class))
+                .picture(claims.get("picture", String.class))
+                .expiresAt(claims.getExpiration().toInstant())
+                .build();
+
+        if (verifiedTokens.size() < maxCachedTokens) {
+            verifiedTokens.put(hash, verified);
+        }
+        return verified;
+    }
+
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
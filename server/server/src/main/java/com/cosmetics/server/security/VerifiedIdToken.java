@@ -0,0 +1,26 @@
+package com.cosmetics.server.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Claims of a provider ID token whose signature, issuer, audience and expiry have been checked.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class VerifiedIdToken {
+
+    private String provider;
+    private String subject;
+    private String email;
+    private boolean emailVerified;
+    private String name;
+    private String picture;
+    private Instant expiresAt;
+}
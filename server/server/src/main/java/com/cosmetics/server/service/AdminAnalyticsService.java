@@ -0,0 +1,352 @@
+package com.cosmetics.server.service;
+
+import com.cosmetics.server.DTO.response.AdminDashboardResponse;
+import com.cosmetics.server.DTO.response.BrandStatsResponse;
+import com.cosmetics.server.DTO.response.LowStockProductResponse;
+import com.cosmetics.server.event.CatalogChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Admin dashboard aggregates, computed in SQL and cached in memory.
+ * <p>
+ * The three aggregates (per-brand stock, low-stock list, new-user counts) are independent queries run in parallel
+ * on a small bounded pool. Results are served from cache; a stale or invalidated aggregate is recomputed in the
+ * background while the previous value keeps being served. Catalog changes only mark the affected brands dirty,
+ * and the next refresh re-aggregates just those brands. Background refresh stops while nobody looks at the dashboard.
+ */
+@Service
+@Slf4j
+public class AdminAnalyticsService {
+
+    private static final String BRAND_STATS_SQL = """
+            SELECT b.id, b.name, COUNT(p.id), COALESCE(SUM(p.quantity), 0), COALESCE(SUM(p.price * p.quantity), 0)
+            FROM brand b
+            LEFT JOIN products p ON p.brand_id = b.id
+            %s
+            GROUP BY b.id, b.name
+            """;
+
+    private static final String UNBRANDED_STATS_SQL = """
+            SELECT COUNT(*), COALESCE(SUM(quantity), 0), COALESCE(SUM(price * quantity), 0)
+            FROM products
+            WHERE brand_id IS NULL
+            """;
+
+    // idx_products_quantity
+    private static final String LOW_STOCK_SQL = """
+            SELECT p.id, p.sku, p.description, p.quantity, b.name
+            FROM products p
+            LEFT JOIN brand b ON b.id = p.brand_id
+            WHERE p.quantity <= ?
+            ORDER BY p.quantity, p.id
+            LIMIT ?
+            """;
+
+    // idx_users_created_at: one range scan over the widest window, narrower windows are filters
+    private static final String NEW_USERS_SQL = """
+            SELECT COUNT(*) FILTER (WHERE created_at >= ?), COUNT(*) FILTER (WHERE created_at >= ?), COUNT(*)
+            FROM users
+            WHERE created_at >= ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ThreadPoolExecutor executor;
+    private final Duration ttl;
+    private final Duration idleAfter;
+    private final int lowStockThreshold;
+    private final int lowStockLimit;
+
+    private final Aggregate<BrandStats> brandStats;
+    private final Aggregate<List<LowStockProductResponse>> lowStock;
+    private final Aggregate<long[]> newUsers;
+
+    private final Set<Long> dirtyBrands = ConcurrentHashMap.newKeySet();
+    private volatile boolean unbrandedDirty;
+    private volatile boolean wholeCatalogDirty;
+    private volatile long lastAccessNanos = System.nanoTime() - Long.MAX_VALUE / 2;
+
+    // aggregates tolerate replica lag, so they read from a replica when one is in rotation
+    public AdminAnalyticsService(@Qualifier("readOnlyDataSource") DataSource dataSource,
+                                 @Value("${app.analytics.parallelism:3}") int parallelism,
+                                 @Value("${app.analytics.ttl:PT30S}") Duration ttl,
+                                 @Value("${app.analytics.idle-after:PT10M}") Duration idleAfter,
+                                 @Value("${app.analytics.query-timeout:PT10S}") Duration queryTimeout,
+                                 @Value("${app.analytics.low-stock-threshold:10}") int lowStockThreshold,
+                                 @Value("${app.analytics.low-stock-limit:50}") int lowStockLimit) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setQueryTimeout((int) queryTimeout.toSeconds());
+        this.ttl = ttl;
+        this.idleAfter = idleAfter;
+        this.lowStockThreshold = lowStockThreshold;
+        this.lowStockLimit = lowStockLimit;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        // one slot per aggregate is enough, the queue only absorbs overlapping refreshes
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(parallelism * 4), runnable -> {
+                    Thread thread = new Thread(runnable, "admin-analytics-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+
+        this.brandStats = new Aggregate<>("brandStats", this::refreshBrandStats);
+        this.lowStock = new Aggregate<>("lowStock", previous -> queryLowStock());
+        this.newUsers = new Aggregate<>("newUsers", previous -> queryNewUsers());
+    }
+
+    public AdminDashboardResponse dashboard(int topBrands) {
+        lastAccessNanos = System.nanoTime();
+
+        // cold aggregates are loaded in parallel, warm ones come straight from the cache
+        CompletableFuture<BrandStats> brands = brandStats.load();
+        CompletableFuture<List<LowStockProductResponse>> lowStockProducts = lowStock.load();
+        CompletableFuture<long[]> users = newUsers.load();
+        CompletableFuture.allOf(brands, lowStockProducts, users).join();
+        refreshStale();
+
+        BrandStats stats = brands.join();
+        long productCount = stats.unbranded().getProductCount();
+        long units = stats.unbranded().getUnitsInStock();
+        BigDecimal stockValue = stats.unbranded().getStockValue();
+        for (BrandStatsResponse brand : stats.byBrand().values()) {
+            productCount += brand.getProductCount();
+            units += brand.getUnitsInStock();
+            stockValue = stockValue.add(brand.getStockValue());
+        }
+
+        long[] userCounts = users.join();
+        return AdminDashboardResponse.builder()
+                .productCount(productCount)
+                .unitsInStock(units)
+                .stockValue(stockValue)
+                .topBrands(stats.byBrand().values().stream()
+                        .sorted(Comparator.comparing(BrandStatsResponse::getStockValue).reversed())
+                        .limit(topBrands)
+                        .toList())
+                .lowStockThreshold(lowStockThreshold)
+                .lowStock(lowStockProducts.join())
+                .newUsersLast24h(userCounts[0])
+                .newUsersLast7d(userCounts[1])
+                .newUsersLast30d(userCounts[2])
+                .brandStatsComputedAt(brandStats.computedAt())
+                .lowStockComputedAt(lowStock.computedAt())
+                .newUsersComputedAt(newUsers.computedAt())
+                .build();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.wholeCatalog()) {
+            wholeCatalogDirty = true;
+        } else if (event.brandIds().isEmpty()) {
+            unbrandedDirty = true;
+        } else {
+            dirtyBrands.addAll(event.brandIds());
+        }
+        brandStats.invalidate();
+        lowStock.invalidate();
+    }
+
+    /**
+     * Keeps the cache warm between page loads, as long as the dashboard was opened recently.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.refresh-interval-ms:10000}")
+    public void refreshStale() {
+        if (System.nanoTime() - lastAccessNanos > idleAfter.toNanos()) {
+            return;
+        }
+        brandStats.refreshIfStale(ttl);
+        lowStock.refreshIfStale(ttl);
+        newUsers.refreshIfStale(ttl);
+    }
+
+    private BrandStats refreshBrandStats(BrandStats previous) {
+        if (previous == null || wholeCatalogDirty) {
+            wholeCatalogDirty = false;
+            dirtyBrands.clear();
+            unbrandedDirty = false;
+            try {
+                Map<Long, BrandStatsResponse> byBrand = new HashMap<>();
+                for (BrandStatsResponse brand : jdbcTemplate.query(BRAND_STATS_SQL.formatted(""),
+                        AdminAnalyticsService::brandRow)) {
+                    byBrand.put(brand.getBrandId(), brand);
+                }
+                return new BrandStats(Collections.unmodifiableMap(byBrand), queryUnbranded());
+            } catch (RuntimeException e) {
+                wholeCatalogDirty = true;
+                throw e;
+            }
+        }
+
+        List<Long> changed = List.copyOf(dirtyBrands);
+        dirtyBrands.removeAll(changed);
+        boolean unbranded = unbrandedDirty;
+        unbrandedDirty = false;
+        try {
+            Map<Long, BrandStatsResponse> byBrand = new HashMap<>(previous.byBrand());
+            if (!changed.isEmpty()) {
+                changed.forEach(byBrand::remove);
+                String placeholders = String.join(", ", Collections.nCopies(changed.size(), "?"));
+                // brands that no longer exist simply do not come back
+                jdbcTemplate.query(BRAND_STATS_SQL.formatted("WHERE b.id IN (" + placeholders + ")"),
+                                AdminAnalyticsService::brandRow, changed.toArray())
+                        .forEach(brand -> byBrand.put(brand.getBrandId(), brand));
+            }
+            return new BrandStats(Collections.unmodifiableMap(byBrand),
+                    unbranded ? queryUnbranded() : previous.unbranded());
+        } catch (RuntimeException e) {
+            // retried by the next refresh
+            dirtyBrands.addAll(changed);
+            unbrandedDirty |= unbranded;
+            throw e;
+        }
+    }
+
+    private BrandStatsResponse queryUnbranded() {
+        return jdbcTemplate.queryForObject(UNBRANDED_STATS_SQL, (rs, rowNum) -> BrandStatsResponse.builder()
+                .productCount(rs.getLong(1))
+                .unitsInStock(rs.getLong(2))
+                .stockValue(rs.getBigDecimal(3))
+                .build());
+    }
+
+    private List<LowStockProductResponse> queryLowStock() {
+        return jdbcTemplate.query(LOW_STOCK_SQL, (rs, rowNum) -> LowStockProductResponse.builder()
+                .productId(rs.getLong(1))
+                .sku(rs.getString(2))
+                .description(rs.getString(3))
+                .quantity(rs.getInt(4))
+                .brandName(rs.getString(5))
+                .build(), lowStockThreshold, lowStockLimit);
+    }
+
+    private long[] queryNewUsers() {
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.queryForObject(NEW_USERS_SQL,
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2), rs.getLong(3)},
+                Timestamp.valueOf(now.minusDays(1)), Timestamp.valueOf(now.minusDays(7)),
+                Timestamp.valueOf(now.minusDays(30)));
+    }
+
+    private static BrandStatsResponse brandRow(ResultSet rs, int rowNum) throws SQLException {
+        return BrandStatsResponse.builder()
+                .brandId(rs.getLong(1))
+                .brandName(rs.getString(2))
+                .productCount(rs.getLong(3))
+                .unitsInStock(rs.getLong(4))
+                .stockValue(rs.getBigDecimal(5))
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record BrandStats(Map<Long, BrandStatsResponse> byBrand, BrandStatsResponse unbranded) {
+    }
+
+    /**
+     * One cached aggregate: single-flight refresh on the analytics pool, previous value served meanwhile.
+     */
+    private final class Aggregate<T> {
+
+        private final String name;
+        private final UnaryOperator<T> compute;
+        private final AtomicReference<CompletableFuture<T>> inFlight = new AtomicReference<>();
+        private volatile T value;
+        private volatile Instant computedAt;
+        private volatile boolean invalidated;
+
+        Aggregate(String name, UnaryOperator<T> compute) {
+            this.name = name;
+            this.compute = compute;
+        }
+
+        CompletableFuture<T> load() {
+            T current = value;
+            return current != null ? CompletableFuture.completedFuture(current) : refresh();
+        }
+
+        void invalidate() {
+            invalidated = true;
+        }
+
+        void refreshIfStale(Duration ttl) {
+            Instant at = computedAt;
+            if (invalidated || at == null || at.plus(ttl).isBefore(Instant.now())) {
+                refresh();
+            }
+        }
+
+        LocalDateTime computedAt() {
+            Instant at = computedAt;
+            return at == null ? null : LocalDateTime.ofInstant(at, ZoneId.systemDefault());
+        }
+
+        private CompletableFuture<T> refresh() {
+            CompletableFuture<T> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+            CompletableFuture<T> next = new CompletableFuture<>();
+            if (!inFlight.compareAndSet(null, next)) {
+                // the winner may already have finished and cleared the slot
+                CompletableFuture<T> other = inFlight.get();
+                return other != null ? other : refresh();
+            }
+
+            // cleared before the query, an invalidation during it triggers another refresh
+            invalidated = false;
+            CompletableFuture.supplyAsync(() -> compute.apply(value), executor).whenComplete((result, error) -> {
+                if (error != null) {
+                    invalidated = true;
+                    log.warn("Admin analytics aggregate {} failed: {}", name, error.getMessage());
+                    // keep serving the last good value when there is one
+                    if (value != null) {
+                        next.complete(value);
+                    } else {
+                        next.completeExceptionally(error);
+                    }
+                } else {
+                    value = result;
+                    computedAt = Instant.now();
+                    next.complete(result);
+                }
+                inFlight.set(null);
+            });
+            return next;
+        }
+    }
+}
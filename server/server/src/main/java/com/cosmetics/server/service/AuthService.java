@@ -0,0 +1,414 @@
+package com.cosmetics.server.service;
+
+import com.cosmetics.server.DTO.UsersDTO;
+import com.cosmetics.server.DTO.request.ClientInfo;
+import com.cosmetics.server.DTO.request.ForgotPasswordRequest;
+import com.cosmetics.server.DTO.request.LoginRequest;
+import com.cosmetics.server.DTO.request.LogoutRequest;
+import com.cosmetics.server.DTO.request.RegisterRequest;
+import com.cosmetics.server.DTO.request.ResetPasswordRequest;
+import com.cosmetics.server.DTO.request.VerifyOtpRequest;
+import com.cosmetics.server.DTO.response.AuthResponse;
+import com.cosmetics.server.DTO.response.AuthorizationUrlResponse;
+import com.cosmetics.server.DTO.response.LoginResponse;
+import com.cosmetics.server.DTO.response.RegisterResponse;
+import com.cosmetics.server.audit.AuditEventType;
+import com.cosmetics.server.audit.AuditLogger;
+import com.cosmetics.server.entity.ENUM.AuthProvider;
+import com.cosmetics.server.entity.ENUM.OtpPurposes;
+import com.cosmetics.server.entity.ENUM.STATUS;
+import com.cosmetics.server.entity.auth.Users;
+import com.cosmetics.server.exception.AuthException;
+import com.cosmetics.server.exception.InvalidIdTokenException;
+import com.cosmetics.server.pattern.RedisKetPattern;
+import com.cosmetics.server.repository.UsersRepository;
+import com.cosmetics.server.security.ProviderTokenVerifier;
+import com.cosmetics.server.security.VerifiedIdToken;
+import com.cosmetics.server.validation.Identifier;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Local accounts (password + OTP) and social sign-in, ending in an access token and a refresh session.
+ * <p>
+ * Registration and password login are both confirmed with an OTP before tokens are issued. Refresh tokens
+ * are single use: every refresh revokes the presented session and opens a new one (RefreshSessionService).
+ * Social sign-in trusts only ID tokens verified by {@link ProviderTokenVerifier}.
+ */
+@Service
+@Slf4j
+public class AuthService {
+
+    private static final String TOKEN_TYPE = "Bearer";
+    private static final Duration OAUTH2_STATE_TTL = Duration.ofMinutes(10);
+
+    private final UsersRepository usersRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final OtpService otpService;
+    private final JwtConfig jwtConfig;
+    private final RefreshSessionService refreshSessionService;
+    private final UserActivityBuffer userActivityBuffer;
+    private final ProviderTokenVerifier providerTokenVerifier;
+    private final StringRedisTemplate redisTemplate;
+    private final AuditLogger auditLogger;
+    private final String googleClientId;
+    private final String googleClientSecret;
+    private final String googleRedirectUri;
+    private final URI googleAuthorizationUri;
+    private final URI googleTokenUri;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(3)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public AuthService(UsersRepository usersRepository,
+                       PasswordEncoder passwordEncoder,
+                       OtpService otpService,
+                       JwtConfig jwtConfig,
+                       RefreshSessionService refreshSessionService,
+                       UserActivityBuffer userActivityBuffer,
+                       ProviderTokenVerifier providerTokenVerifier,
+                       StringRedisTemplate redisTemplate,
+                       AuditLogger auditLogger,
+                       @Value("${app.oauth2.google.client-id:}") String googleClientId,
+                       @Value("${app.oauth2.google.client-secret:}") String googleClientSecret,
+                       @Value("${app.oauth2.google.redirect-uri:}") String googleRedirectUri,
+                       @Value("${app.oauth2.google.authorization-uri:https://accounts.google.com/o/oauth2/v2/auth}") URI googleAuthorizationUri,
+                       @Value("${app.oauth2.google.token-uri:https://oauth2.googleapis.com/token}") URI googleTokenUri) {
+        this.usersRepository = usersRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.otpService = otpService;
+        this.jwtConfig = jwtConfig;
+        this.refreshSessionService = refreshSessionService;
+        this.userActivityBuffer = userActivityBuffer;
+        this.providerTokenVerifier = providerTokenVerifier;
+        this.redisTemplate = redisTemplate;
+        this.auditLogger = auditLogger;
+        this.googleClientId = googleClientId;
+        this.googleClientSecret = googleClientSecret;
+        this.googleRedirectUri = googleRedirectUri;
+        this.googleAuthorizationUri = googleAuthorizationUri;
+        this.googleTokenUri = googleTokenUri;
+    }
+
+    /**
+     * Creates the account unverified and sends a REGISTER OTP. Registering again before verifying replaces the
+     * pending password and names and sends a new code.
+     */
+    public RegisterResponse register(RegisterRequest request) {
+        Identifier identifier = Identifier.parse(request.getUsername());
+        if (!identifier.isValid()) {
+            throw new AuthException(HttpStatus.BAD_REQUEST, "INVALID_USERNAME", "Username must be a valid email or phone number");
+        }
+
+        Users user = usersRepository.findByUsername(identifier.getNormalized()).orElse(null);
+        if (user != null && isVerified(user)) {
+            throw new AuthException(HttpStatus.CONFLICT, "USERNAME_TAKEN", "Username is already registered");
+        }
+        if (user == null) {
+            user = Users.builder()
+                    .username(identifier.getNormalized())
+                    .email(identifier.isEmail() ? identifier.getNormalized() : null)
+                    .phoneNumber(identifier.isPhone() ? identifier.getNormalized() : null)
+                    .build();
+        }
+        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setFirstName(request.getFirstName());
+        user.setLastName(request.getLastName());
+        user = usersRepository.save(user);
+
+        otpService.sendOtp(identifier.getNormalized(), OtpPurposes.REGISTER);
+        return RegisterResponse.builder()
+                .userId(user.getId())
+                .userName(identifier.getMasked())
+                .message("Verification code sent")
+                .build();
+    }
+
+    public AuthResponse verifyRegistration(VerifyOtpRequest request, ClientInfo clientInfo) {
+        Users user = requireUser(request.getUsername());
+        if (!otpService.verifyOtp(user.getUsername(), request.getOtp(), OtpPurposes.REGISTER)) {
+            throw new AuthException(HttpStatus.BAD_REQUEST, "INVALID_OTP", "Invalid or expired verification code");
+        }
+
+        if (user.isEmailUser()) {
+            user.setEmailVerified(true);
+        } else {
+            user.setPhoneVerified(true);
+        }
+        user = usersRepository.save(user);
+        auditLogger.record(AuditEventType.LOGIN, String.valueOf(user.getId()), "success", "register");
+        return issueTokens(user, clientInfo);
+    }
+
+    /**
+     * First login step: checks the password and sends a LOGIN OTP; tokens come from {@link #verifyLogin}.
+     */
+    public LoginResponse login(LoginRequest request) {
+        Identifier identifier = Identifier.parse(request.getUsername());
+        Users user = usersRepository.findByUsername(identifier.getNormalized()).orElse(null);
+        if (user == null || user.getPassword() == null
+                || !passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+            auditLogger.record(AuditEventType.LOGIN, identifier.getNormalized(), "bad_credentials", "password");
+            throw new AuthException(HttpStatus.UNAUTHORIZED, "INVALID_CREDENTIALS", "Invalid username or password");
+        }
+        requireActive(user);
+        if (!isVerified(user)) {
+            throw new AuthException(HttpStatus.FORBIDDEN, "NOT_VERIFIED", "Account is not verified");
+        }
+
+        otpService.sendOtp(user.getUsername(), OtpPurposes.LOGIN);
+        return LoginResponse.builder()
+                .login_id(identifier.getMasked())
+                .message("Verification code sent")
+                .build();
+    }
+
+    public AuthResponse verifyLogin(VerifyOtpRequest request, ClientInfo clientInfo) {
+        Users user = requireUser(request.getUsername());
+        requireActive(user);
+        if (!otpService.verifyOtp(user.getUsername(), request.getOtp(), OtpPurposes.LOGIN)) {
+            throw new AuthException(HttpStatus.UNAUTHORIZED, "INVALID_OTP", "Invalid or expired verification code");
+        }
+        auditLogger.record(AuditEventType.LOGIN, String.valueOf(user.getId()), "success", "password");
+        return issueTokens(user, clientInfo);
+    }
+
+    public void sendOtp(String username, OtpPurposes purpose) {
+        otpService.sendOtp(username, purpose);
+    }
+
+    /**
+     * Sends a FORGET_PASSWORD OTP. Unknown usernames get the same answer so the endpoint does not reveal accounts.
+     */
+    public void forgotPassword(ForgotPasswordRequest request) {
+        Identifier identifier = Identifier.parse(request.getUsername());
+        if (usersRepository.existsByUsername(identifier.getNormalized())) {
+            otpService.sendOtp(identifier.getNormalized(), OtpPurposes.FORGET_PASSWORD);
+        }
+    }
+
+    /**
+     * Sets the new password and signs out every session of the account.
+     */
+    public void resetPassword(ResetPasswordRequest request) {
+        Users user = requireUser(request.getUsername());
+        if (!otpService.verifyOtp(user.getUsername(), request.getOtp(), OtpPurposes.FORGET_PASSWORD)) {
+            throw new AuthException(HttpStatus.BAD_REQUEST, "INVALID_OTP", "Invalid or expired verification code");
+        }
+        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        usersRepository.save(user);
+        refreshSessionService.revokeAll(user.getId());
+        auditLogger.record(AuditEventType.PASSWORD_CHANGED, String.valueOf(user.getId()), "success", "reset");
+    }
+
+    /**
+     * Rotates the session: the presented refresh token is revoked and a new one issued with the access token.
+     */
+    public AuthResponse refresh(String refreshToken, ClientInfo clientInfo) {
+        Long userId;
+        try {
+            if (!refreshSessionService.isActive(refreshToken)) {
+                throw new AuthException(HttpStatus.UNAUTHORIZED, "INVALID_REFRESH_TOKEN", "Refresh token is not active");
+            }
+            userId = jwtConfig.extractUserId(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new AuthException(HttpStatus.UNAUTHORIZED, "INVALID_REFRESH_TOKEN", "Refresh token is invalid");
+        }
+
+        Users user = usersRepository.findById(userId)
+                .orElseThrow(() -> new AuthException(HttpStatus.UNAUTHORIZED, "INVALID_REFRESH_TOKEN", "Refresh token is invalid"));
+        requireActive(user);
+        refreshSessionService.revoke(refreshToken);
+        return buildResponse(user, jwtConfig.generateAccessToken(user),
+                refreshSessionService.open(user, clientInfo.getIpAddress()));
+    }
+
+    public void logout(LogoutRequest request) {
+        if (request.getRefreshToken() != null && !request.getRefreshToken().isBlank()) {
+            try {
+                refreshSessionService.revoke(request.getRefreshToken());
+            } catch (JwtException | IllegalArgumentException e) {
+                log.debug("Ignoring invalid refresh token on logout: {}", e.getMessage());
+            }
+        }
+        if (request.getAccessToken() != null && !request.getAccessToken().isBlank()) {
+            jwtConfig.blackListToken(request.getAccessToken());
+        }
+    }
+
+    /**
+     * Signs in with an already verified Google ID token: the account linked to the Google subject, else the
+     * local account with the same verified email (which gets linked), else a new account.
+     */
+    public AuthResponse handleGoogleIdToken(VerifiedIdToken idToken, ClientInfo clientInfo) {
+        Users user = usersRepository.findByProviderAndProviderId(AuthProvider.GOOGLE, idToken.getSubject())
+                .orElseGet(() -> linkOrCreateGoogleUser(idToken));
+        requireActive(user);
+        return issueTokens(user, clientInfo);
+    }
+
+    /**
+     * Authorization-code callback: checks the state issued with the authorization URL, exchanges the code and
+     * signs in with the returned ID token.
+     */
+    public AuthResponse handleOAuth2Callback(String provider, String code, String state, ClientInfo clientInfo) {
+        requireGoogle(provider);
+        String redirectUri = state == null ? null : redisTemplate.opsForValue()
+                .getAndDelete(RedisKetPattern.buildOAuth2StateKey(state));
+        if (redirectUri == null) {
+            throw new AuthException(HttpStatus.BAD_REQUEST, "INVALID_STATE", "Unknown or expired OAuth2 state");
+        }
+
+        VerifiedIdToken idToken;
+        try {
+            idToken = providerTokenVerifier.verifyGoogleIdToken(exchangeGoogleCode(code, redirectUri));
+        } catch (InvalidIdTokenException e) {
+            throw new AuthException(HttpStatus.UNAUTHORIZED, "INVALID_ID_TOKEN", e.getMessage());
+        }
+        return handleGoogleIdToken(idToken, clientInfo);
+    }
+
+    public AuthorizationUrlResponse getOAuth2AuthorizationUrl(String provider, String redirectUri) {
+        requireGoogle(provider);
+        String redirect = redirectUri != null && !redirectUri.isBlank() ? redirectUri : googleRedirectUri;
+        String state = UUID.randomUUID().toString();
+        redisTemplate.opsForValue().set(RedisKetPattern.buildOAuth2StateKey(state), redirect, OAUTH2_STATE_TTL);
+
+        String url = UriComponentsBuilder.fromUri(googleAuthorizationUri)
+                .queryParam("client_id", googleClientId)
+                .queryParam("redirect_uri", redirect)
+                .queryParam("response_type", "code")
+                .queryParam("scope", "openid email profile")
+                .queryParam("state", state)
+                .encode()
+                .toUriString();
+        return AuthorizationUrlResponse.builder()
+                .provider("google")
+                .authorizationUrl(url)
+                .state(state)
+                .build();
+    }
+
+    private AuthResponse issueTokens(Users user, ClientInfo clientInfo) {
+        String accessToken = jwtConfig.generateAccessToken(user);
+        String refreshToken = refreshSessionService.open(user, clientInfo.getIpAddress());
+        // last_login goes through the write-behind buffer instead of an UPDATE per login
+        userActivityBuffer.recordLogin(user.getId(), LocalDateTime.now());
+        return buildResponse(user, accessToken, refreshToken);
+    }
+
+    private AuthResponse buildResponse(Users user, String accessToken, String refreshToken) {
+        return AuthResponse.builder()
+                .accessToken(accessToken)
+                .refreshToken(refreshToken)
+                .tokenType(TOKEN_TYPE)
+                .expiresIn(jwtConfig.getAccessTokenExpirationMs() / 1000)
+                .users(toDto(user))
+                .build();
+    }
+
+    private Users linkOrCreateGoogleUser(VerifiedIdToken idToken) {
+        Identifier email = Identifier.parse(idToken.getEmail());
+        if (idToken.isEmailVerified() && email.isEmail() && email.isValid()) {
+            Users existing = usersRepository.findByEmail(email.getNormalized()).orElse(null);
+            if (existing != null) {
+                if (existing.getProviderID() != null) {
+                    throw new AuthException(HttpStatus.CONFLICT, "ACCOUNT_LINKED", "Email is linked to another account");
+                }
+                existing.setProviderID(idToken.getSubject());
+                existing.setEmailVerified(true);
+                return usersRepository.save(existing);
+            }
+        }
+
+        boolean hasEmail = email.isEmail() && email.isValid();
+        return usersRepository.save(Users.builder()
+                .username(hasEmail ? email.getNormalized() : "google:" + idToken.getSubject())
+                .email(hasEmail ? email.getNormalized() : null)
+                .emailVerified(hasEmail && idToken.isEmailVerified())
+                .authProvider(AuthProvider.GOOGLE)
+                .providerID(idToken.getSubject())
+                .firstName(idToken.getName())
+                .avatarUrl(idToken.getPicture())
+                .build());
+    }
+
+    private String exchangeGoogleCode(String code, String redirectUri) {
+        String form = Map.of(
+                        "code", code,
+                        "client_id", googleClientId,
+                        "client_secret", googleClientSecret,
+                        "redirect_uri", redirectUri,
+                        "grant_type", "authorization_code")
+                .entrySet().stream()
+                .map(e -> e.getKey() + "=" + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        HttpRequest request = HttpRequest.newBuilder(googleTokenUri)
+                .timeout(Duration.ofSeconds(5))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            JsonNode body = objectMapper.readTree(response.body());
+            if (response.statusCode() != 200 || !body.hasNonNull("id_token")) {
+                log.warn("Google code exchange failed with {}: {}", response.statusCode(), body.path("error").asText());
+                throw new AuthException(HttpStatus.UNAUTHORIZED, "CODE_EXCHANGE_FAILED", "Google sign-in failed");
+            }
+            return body.get("id_token").asText();
+        } catch (IOException e) {
+            throw new AuthException(HttpStatus.BAD_GATEWAY, "PROVIDER_UNAVAILABLE", "Google is unavailable");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AuthException(HttpStatus.BAD_GATEWAY, "PROVIDER_UNAVAILABLE", "Google is unavailable");
+        }
+    }
+
+    private void requireGoogle(String provider) {
+        if (!"google".equalsIgnoreCase(provider) || googleClientId.isBlank()) {
+            throw new AuthException(HttpStatus.BAD_REQUEST, "UNSUPPORTED_PROVIDER", "Unsupported OAuth2 provider " + provider);
+        }
+    }
+
+    private Users requireUser(String username) {
+        return usersRepository.findByUsername(Identifier.parse(username).getNormalized())
+                .orElseThrow(() -> new AuthException(HttpStatus.BAD_REQUEST, "INVALID_OTP", "Invalid or expired verification code"));
+    }
+
+    private static void requireActive(Users user) {
+        if (user.getStatus() == STATUS.DELETE) {
+            throw new AuthException(HttpStatus.FORBIDDEN, "ACCOUNT_DISABLED", "Account is disabled");
+        }
+    }
+
+    private static boolean isVerified(Users user) {
+        return user.isEmailVerified() || user.isPhoneVerified();
+    }
+
+    private static UsersDTO toDto(Users user) {
+        return new UsersDTO(user.getId(), user.getUsername(), user.getEmail(), user.getPhoneNumber(),
+                user.getFirstName(), user.getLastName(), user.getAvatarUrl(), user.isEmailVerified(),
+                user.isPhoneVerified(), user.getStatus(), user.getRoles(), user.getCreatedAt(), user.getLastLoginAt());
+    }
+}
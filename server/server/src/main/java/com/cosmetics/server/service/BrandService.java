@@ -0,0 +1,55 @@
+package com.cosmetics.server.service;
+
+import com.cosmetics.server.DTO.response.BrandResponse;
+import com.cosmetics.server.DTO.response.PageResponse;
+import com.cosmetics.server.datasource.PrimaryReads;
+import com.cosmetics.server.entity.BrandProductSummary;
+import com.cosmetics.server.profiling.CatalogQueryEvent;
+import com.cosmetics.server.repository.BrandProductSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class BrandService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final BrandProductSummaryRepository brandProductSummaryRepository;
+    private final CatalogVersionService catalogVersionService;
+
+    /**
+     * Brand listings include product aggregates, so any catalog change invalidates them. The summaries are
+     * refreshed before the catalog version moves (BrandSummaryService), so a new tag never pairs with old data.
+     */
+    public String brandsPageTag(int page, int size) {
+        return "b" + catalogVersionService.current() + "-p" + page + "-s" + size;
+    }
+
+    /**
+     * One read of the summary table, ordered by the brand name index. On the primary, like the tag: a replica
+     * behind the version bump would serve old aggregates under the new tag.
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<BrandResponse> getBrands(int page, int size) {
+        PageRequest pageable = PageRequest.of(page, size, Sort.by("brandName"));
+        return CatalogQueryEvent.record("brands:page", () -> PrimaryReads.call(() ->
+                PageResponse.of(brandProductSummaryRepository.findAll(pageable), BrandService::toResponse)),
+                response -> response.getContent().size());
+    }
+
+    static BrandResponse toResponse(BrandProductSummary summary) {
+        return BrandResponse.builder()
+                .id(summary.getBrandId())
+                .name(summary.getBrandName())
+                .description(summary.getBrandDescription())
+                .productCount(summary.getProductCount())
+                .inStockCount(summary.getInStockCount())
+                .minPrice(summary.getMinPrice())
+                .maxPrice(summary.getMaxPrice())
+                .build();
+    }
+}
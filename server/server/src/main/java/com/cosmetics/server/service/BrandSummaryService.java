@@ -0,0 +1,133 @@
+package com.cosmetics.server.service;
+
+import com.cosmetics.server.event.CatalogChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains brand_product_summary from product change events.
+ * <p>
+ * After a product write commits, only the brands it touched are re-aggregated: one indexed aggregate per brand
+ * (idx_products_brand_id) upserted into the summary. Min/max cannot be maintained from deltas once products
+ * are removed, so a brand is always recomputed as a whole. Bulk imports rebuild every row.
+ * Runs before the catalog version moves, so listings served under a new ETag already see the new summaries.
+ * Refreshes that fail are retried by a scheduled pass, which also rebuilds everything now and then.
+ */
+@Service
+@Slf4j
+public class BrandSummaryService {
+
+    /**
+     * Ahead of CatalogVersionService and the other after-commit listeners.
+     */
+    private static final int LISTENER_ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO brand_product_summary (brand_id, brand_name, brand_description, product_count,
+                                               in_stock_count, min_price, max_price, updated_at)
+            SELECT b.id, b.name, b.description, COUNT(p.id), COUNT(p.id) FILTER (WHERE p.quantity > 0),
+                   MIN(p.price), MAX(p.price), now()
+            FROM brand b
+            LEFT JOIN products p ON p.brand_id = b.id
+            %s
+            GROUP BY b.id, b.name, b.description
+            ON CONFLICT (brand_id) DO UPDATE SET
+                brand_name        = EXCLUDED.brand_name,
+                brand_description = EXCLUDED.brand_description,
+                product_count     = EXCLUDED.product_count,
+                in_stock_count    = EXCLUDED.in_stock_count,
+                min_price         = EXCLUDED.min_price,
+                max_price         = EXCLUDED.max_price,
+                updated_at        = EXCLUDED.updated_at
+            """;
+
+    private static final String DELETE_ORPHANS_SQL =
+            "DELETE FROM brand_product_summary s WHERE NOT EXISTS (SELECT 1 FROM brand b WHERE b.id = s.brand_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+    private final Set<Long> pendingBrands = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuildPending;
+
+    public BrandSummaryService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        // after-commit listeners still see the finished transaction, writes need their own
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Order(LISTENER_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.wholeCatalog()) {
+            rebuild();
+        } else if (!event.brandIds().isEmpty()) {
+            refresh(event.brandIds());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM brand_product_summary", Long.class);
+        if (rows == null || rows == 0) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.brand-summary.retry-interval-ms:30000}")
+    public void retryPending() {
+        if (rebuildPending) {
+            rebuild();
+        } else if (!pendingBrands.isEmpty()) {
+            List<Long> brands = List.copyOf(pendingBrands);
+            pendingBrands.removeAll(brands);
+            refresh(brands);
+        }
+    }
+
+    /**
+     * Safety net for writes that bypassed the events (manual SQL, another service).
+     */
+    @Scheduled(cron = "${app.brand-summary.rebuild-cron:0 15 * * * *}")
+    public void rebuild() {
+        rebuildPending = false;
+        try {
+            requiresNew.executeWithoutResult(status -> {
+                int upserted = jdbcTemplate.update(UPSERT_SQL.formatted(""));
+                int deleted = jdbcTemplate.update(DELETE_ORPHANS_SQL);
+                log.info("Brand summaries rebuilt: {} upserted, {} removed", upserted, deleted);
+            });
+        } catch (RuntimeException e) {
+            rebuildPending = true;
+            log.warn("Brand summary rebuild failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private void refresh(Collection<Long> brandIds) {
+        List<Long> ids = List.copyOf(brandIds);
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        try {
+            requiresNew.executeWithoutResult(status -> jdbcTemplate.update(
+                    UPSERT_SQL.formatted("WHERE b.id IN (" + placeholders + ")"), ids.toArray()));
+        } catch (RuntimeException e) {
+            pendingBrands.addAll(ids);
+            log.warn("Brand summary refresh failed for {} brands, will retry: {}", ids.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.cosmetics.server.service;
+
+import com.cosmetics.server.DTO.response.CatalogImportResponse;
+import com.cosmetics.server.entity.ENUM.CatalogImportFormat;
+import com.cosmetics.server.event.CatalogChangedEvent;
+import com.cosmetics.server.exception.CatalogImportException;
+import com.cosmetics.server.profiling.CatalogQueryEvent;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk catalog import: streams the request body into a temp staging table via COPY,
+ * then upserts brands and products with set-based SQL. Rows are never materialized in the heap.
+ * The upserts need uk_brand_name and uk_products_sku; existing databases get them (after merging duplicate
+ * brand names) from db/catalog-natural-keys.sql.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CatalogImportService {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final int STAGING_COLUMNS = 6;
+
+    private static final String CREATE_STAGING_SQL = """
+            CREATE TEMP TABLE catalog_import_staging (
+                row_no      BIGSERIAL,
+                sku         TEXT,
+                brand_name  TEXT,
+                description TEXT,
+                price       NUMERIC(12, 2),
+                quantity    INTEGER,
+                image_url   TEXT
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_SQL =
+            "COPY catalog_import_staging (sku, brand_name, description, price, quantity, image_url) "
+                    + "FROM STDIN WITH (FORMAT csv, HEADER %s)";
+
+    private static final String UPSERT_BRANDS_SQL = """
+            INSERT INTO brand (name)
+            SELECT DISTINCT s.brand_name
+            FROM catalog_import_staging s
+            WHERE s.brand_name IS NOT NULL AND s.brand_name <> ''
+            ON CONFLICT (name) DO NOTHING
+            """;
+
+    // DISTINCT ON + row_no DESC: when a SKU appears twice in one file the last row wins
+    private static final String UPSERT_PRODUCTS_SQL = """
+            INSERT INTO products (sku, description, price, quantity, image_url, brand_id, version)
+            SELECT DISTINCT ON (s.sku) s.sku, s.description, s.price, s.quantity, s.image_url, b.id, 0
+            FROM catalog_import_staging s
+            LEFT JOIN brand b ON b.name = s.brand_name
+            WHERE s.sku IS NOT NULL AND s.sku <> ''
+            ORDER BY s.sku, s.row_no DESC
+            ON CONFLICT (sku) DO UPDATE SET
+                description = EXCLUDED.description,
+                price       = EXCLUDED.price,
+                quantity    = EXCLUDED.quantity,
+                image_url   = EXCLUDED.image_url,
+                image_hash  = CASE WHEN products.image_url IS NOT DISTINCT FROM EXCLUDED.image_url
+                                   THEN products.image_hash END,
+                brand_id    = EXCLUDED.brand_id,
+                version     = products.version + 1
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Map<String, ImportProgress> activeImports = new ConcurrentHashMap<>();
+
+    /**
+     * Import CSV (header: sku,brand,description,price,quantity,image_url) or JSON
+     * (array or newline-delimited objects) in a single transaction.
+     */
+    @Transactional
+    public CatalogImportResponse importCatalog(InputStream body, CatalogImportFormat format) {
+        ImportProgress progress = new ImportProgress(UUID.randomUUID().toString(), format);
+        activeImports.put(progress.importId, progress);
+        CatalogQueryEvent event = new CatalogQueryEvent();
+        event.begin();
+        try {
+            CountingInputStream countingBody = new CountingInputStream(body, progress);
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                runImport(connection, countingBody, progress);
+                return null;
+            });
+
+            // rows were written with plain SQL, so no entity listener saw them
+            eventPublisher.publishEvent(CatalogChangedEvent.forWholeCatalog());
+            progress.stage = "COMPLETED";
+            log.info("Catalog import {} finished: {} rows staged, {} brands inserted, {} products upserted in {} ms",
+                    progress.importId, progress.rowsStaged, progress.brandsInserted,
+                    progress.productsUpserted, progress.elapsedMs());
+            return progress.toResponse();
+        } finally {
+            activeImports.remove(progress.importId);
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = "import:" + format.name().toLowerCase();
+                event.rows = progress.rowsStaged;
+                event.commit();
+            }
+        }
+    }
+
+    public List<CatalogImportResponse> getActiveImports() {
+        return activeImports.values().stream()
+                .sorted(Comparator.comparing(p -> p.startedAt))
+                .map(ImportProgress::toResponse)
+                .toList();
+    }
+
+    private void runImport(Connection connection, InputStream body, ImportProgress progress) throws SQLException {
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_STAGING_SQL);
+        }
+
+        progress.stage = "COPYING";
+        try {
+            progress.rowsStaged = switch (progress.format) {
+                case CSV -> copyManager.copyIn(String.format(COPY_SQL, "true"), body, COPY_BUFFER_SIZE);
+                case JSON -> copyJson(copyManager, body, progress);
+            };
+        } catch (IOException e) {
+            throw new CatalogImportException("Failed to read catalog import body", e);
+        }
+
+        progress.stage = "UPSERTING";
+        try (Statement statement = connection.createStatement()) {
+            progress.brandsInserted = statement.executeUpdate(UPSERT_BRANDS_SQL);
+            progress.productsUpserted = statement.executeUpdate(UPSERT_PRODUCTS_SQL);
+        }
+    }
+
+    /**
+     * Re-encode JSON objects as CSV lines and push them into COPY one row at a time.
+     */
+    private long copyJson(CopyManager copyManager, InputStream body, ImportProgress progress)
+            throws SQLException, IOException {
+        CopyIn copyIn = copyManager.copyIn(String.format(COPY_SQL, "false"));
+        String[] row = new String[STAGING_COLUMNS];
+        StringBuilder line = new StringBuilder(256);
+
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                // top-level array brackets are skipped, each object is one row
+                if (token != JsonToken.START_OBJECT) {
+                    continue;
+                }
+                readRow(parser, row);
+
+                line.setLength(0);
+                appendCsvRow(line, row);
+                byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+                progress.rowsRead.incrementAndGet();
+            }
+            return copyIn.endCopy();
+        } catch (IOException | SQLException | RuntimeException e) {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+            throw e;
+        }
+    }
+
+    private void readRow(JsonParser parser, String[] row) throws IOException {
+        Arrays.fill(row, null);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            int column = columnIndex(parser.currentName());
+            JsonToken value = parser.nextToken();
+
+            if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+            } else if (column >= 0 && value != JsonToken.VALUE_NULL) {
+                row[column] = parser.getText();
+            }
+        }
+    }
+
+    private int columnIndex(String field) {
+        return switch (field) {
+            case "sku" -> 0;
+            case "brand", "brandName" -> 1;
+            case "description" -> 2;
+            case "price" -> 3;
+            case "quantity" -> 4;
+            case "imageUrl", "image_url" -> 5;
+            default -> -1;
+        };
+    }
+
+    private void appendCsvRow(StringBuilder line, String[] row) {
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            String value = row[i];
+            // unquoted empty field is NULL for COPY csv, so real values are always quoted
+            if (value != null) {
+                line.append('"');
+                for (int j = 0; j < value.length(); j++) {
+                    char c = value.charAt(j);
+                    if (c == '"') {
+                        line.append('"');
+                    }
+                    line.append(c);
+                }
+                line.append('"');
+            }
+        }
+        line.append('\n');
+    }
+
+    private static final class ImportProgress {
+        private final String importId;
+        private final CatalogImportFormat format;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong bytesRead = new AtomicLong();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private volatile String stage = "STARTED";
+        private volatile long rowsStaged;
+        private volatile long brandsInserted;
+        private volatile long productsUpserted;
+
+        private ImportProgress(String importId, CatalogImportFormat format) {
+            this.importId = importId;
+            this.format = format;
+        }
+
+        private long elapsedMs() {
+            return (System.nanoTime() - startNanos) / 1_000_000;
+        }
+
+        private CatalogImportResponse toResponse() {
+            long staged = rowsStaged > 0 ? rowsStaged : rowsRead.get();
+            return CatalogImportResponse.builder()
+                    .importId(importId)
+                    .format(format)
+                    .stage(stage)
+                    .bytesRead(bytesRead.get())
+                    .rowsStaged(staged)
+                    .brandsInserted(brandsInserted)
+                    .productsUpserted(productsUpserted)
+                    .rowsSkipped("COMPLETED".equals(stage) ? Math.max(0, rowsStaged - productsUpserted) : 0)
+                    .startedAt(startedAt)
+                    .elapsedMs(elapsedMs())
+                    .build();
+        }
+    }
+
+    /**
+     * Counts bytes and CSV lines as COPY pulls them, so progress can be polled while the import runs.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private final ImportProgress progress;
+
+        private CountingInputStream(InputStream in, ImportProgress progress) {
+            super(in);
+            this.progress = progress;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                progress.bytesRead.incrementAndGet();
+                if (b == '\n' && progress.format == CatalogImportFormat.CSV) {
+                    progress.rowsRead.incrementAndGet();
+                }
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                progress.bytesRead.addAndGet(n);
+                if (progress.format == CatalogImportFormat.CSV) {
+                    int lines = 0;
+                    for (int i = offset; i < offset + n; i++) {
+                        if (buffer[i] == '\n') {
+                            lines++;
+                        }
+                    }
+                    progress.rowsRead.addAndGet(lines);
+                }
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.cosmetics.server.service;
+
+import com.cosmetics.server.event.CatalogChangedEvent;
+import com.cosmetics.server.resilience.RedisGuard;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Cluster-wide catalog version stamp, bumped after every committed product write.
+ * Catalog list ETags are derived from it, so a conditional GET is answered without loading or serializing products.
+ * <p>
+ * The value lives in Redis and is read at most once per refresh interval per instance. It is seeded with the
+ * current time, so a flushed Redis never hands out a version an old ETag could match. While Redis is unavailable
+ * the last known value is served and local writes still bump it.
+ */
+@Service
+@Slf4j
+public class CatalogVersionService {
+
+    static final String VERSION_KEY = "catalog:version";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisGuard redisGuard;
+    private final long refreshNanos;
+
+    private volatile long version;
+    private volatile long refreshedAt;
+
+    public CatalogVersionService(StringRedisTemplate redisTemplate,
+                                 RedisGuard redisGuard,
+                                 @Value("${app.catalog.version-refresh:PT1S}") Duration refreshInterval) {
+        this.redisTemplate = redisTemplate;
+        this.redisGuard = redisGuard;
+        this.refreshNanos = refreshInterval.toNanos();
+        this.version = System.currentTimeMillis();
+        this.refreshedAt = System.nanoTime() - refreshNanos;
+    }
+
+    public long current() {
+        long now = System.nanoTime();
+        if (now - refreshedAt >= refreshNanos) {
+            refreshedAt = now;
+            version = redisGuard.call(this::readOrSeed, () -> version);
+        }
+        return version;
+    }
+
+    // after read models such as the brand summaries have caught up
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        version = redisGuard.call(() -> {
+            readOrSeed();
+            return redisTemplate.opsForValue().increment(VERSION_KEY);
+        }, () -> version + 1);
+        refreshedAt = System.nanoTime();
+    }
+
+    private long readOrSeed() {
+        redisTemplate.opsForValue().setIfAbsent(VERSION_KEY, Long.toString(System.currentTimeMillis()));
+        String value = redisTemplate.opsForValue().get(VERSION_KEY);
+        return value != null ? Long.parseLong(value) : version;
+    }
+}
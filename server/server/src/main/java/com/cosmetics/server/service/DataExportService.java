@@ -0,0 +1,235 @@
+package com.cosmetics.server.service;
+
+import com.cosmetics.server.entity.ENUM.ExportFormat;
+import com.cosmetics.server.profiling.CatalogQueryEvent;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams large tables to an OutputStream through a server-side cursor.
+ * Each row is written as soon as it is fetched, so heap usage does not grow with the table size.
+ */
+@Service
+@Slf4j
+public class DataExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String PRODUCTS_SQL = """
+            SELECT p.id, p.sku, p.description, p.price, p.quantity, p.image_url, p.brand_id, b.name AS brand_name
+            FROM products p
+            LEFT JOIN brand b ON b.id = p.brand_id
+            ORDER BY p.id
+            """;
+
+    private static final String BRANDS_SQL = "SELECT id, name, description FROM brand ORDER BY id";
+
+    // never export password hashes or provider ids
+    private static final String USERS_SQL = """
+            SELECT id, username, email, phone_number, auth_provider, email_verified, phone_verified,
+                   status, created_at, last_login
+            FROM users
+            ORDER BY id
+            """;
+
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public DataExportService(DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        // PostgreSQL only honours the fetch size (cursor mode) inside a transaction
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(fetchSize);
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void exportProducts(OutputStream out, ExportFormat format, boolean gzip) {
+        export(PRODUCTS_SQL, "products", out, format, gzip);
+    }
+
+    public void exportBrands(OutputStream out, ExportFormat format, boolean gzip) {
+        export(BRANDS_SQL, "brands", out, format, gzip);
+    }
+
+    public void exportUsers(OutputStream out, ExportFormat format, boolean gzip) {
+        export(USERS_SQL, "users", out, format, gzip);
+    }
+
+    private void export(String sql, String name, OutputStream out, ExportFormat format, boolean gzip) {
+        long start = System.currentTimeMillis();
+        CatalogQueryEvent event = new CatalogQueryEvent();
+        event.begin();
+        try {
+            OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+            RowWriter writer = format == ExportFormat.CSV ? new CsvRowWriter(target) : new NdjsonRowWriter(target);
+
+            Long rows = readOnlyTransaction.execute(status -> cursorJdbcTemplate.query(sql, rs -> {
+                long count = 0;
+                try {
+                    writer.start(rs.getMetaData());
+                    while (rs.next()) {
+                        writer.write(rs);
+                        count++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            }));
+
+            writer.finish();
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+            out.flush();
+            log.info("Exported {} {} rows as {} in {} ms", rows, name, format, System.currentTimeMillis() - start);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = "export:" + name;
+                event.rows = rows == null ? 0 : rows;
+                event.commit();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to export " + name, e);
+        }
+    }
+
+    private interface RowWriter {
+        void start(ResultSetMetaData metaData) throws SQLException, IOException;
+
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private String[] labels;
+
+        private NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = jsonFactory.createGenerator(out);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void start(ResultSetMetaData metaData) throws SQLException {
+            labels = columnLabels(metaData);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < labels.length; i++) {
+                generator.writeFieldName(labels[i]);
+                Object value = rs.getObject(i + 1);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal);
+                } else if (value instanceof Long || value instanceof Integer) {
+                    generator.writeNumber(((Number) value).longValue());
+                } else if (value instanceof Boolean bool) {
+                    generator.writeBoolean(bool);
+                } else if (value instanceof Timestamp timestamp) {
+                    generator.writeString(timestamp.toLocalDateTime().toString());
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+        private int columns;
+
+        private CsvRowWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        }
+
+        @Override
+        public void start(ResultSetMetaData metaData) throws SQLException, IOException {
+            String[] labels = columnLabels(metaData);
+            columns = labels.length;
+            writer.write(String.join(",", labels));
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                Object value = rs.getObject(i);
+                if (value instanceof Timestamp timestamp) {
+                    writer.write(timestamp.toLocalDateTime().toString());
+                } else if (value != null) {
+                    writeEscaped(value.toString());
+                }
+            }
+            writer.write('\n');
+        }
+
+        private void writeEscaped(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static String[] columnLabels(ResultSetMetaData metaData) throws SQLException {
+        String[] labels = new String[metaData.getColumnCount()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = metaData.getColumnLabel(i + 1);
+        }
+        return labels;
+    }
+}
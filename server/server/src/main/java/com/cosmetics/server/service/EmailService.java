@@ -1,10 +1,14 @@
 package com.cosmetics.server.service;
 
+import com.cosmetics.server.config.TracingConfig;
 import com.cosmetics.server.entity.ENUM.OtpPurposes;
 import com.cosmetics.server.exception.EmailSendException;
+import com.cosmetics.server.metrics.AuthMetrics;
+import io.micrometer.observation.Observation;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
@@ -21,8 +25,10 @@ import java.time.format.DateTimeFormatter;
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
+    // resolved on first send: both beans are lazy so mail and Thymeleaf setup stay off the startup path
+    private final ObjectProvider<JavaMailSender> mailSenderProvider;
+    private final ObjectProvider<TemplateEngine> templateEngineProvider;
+    private final AuthMetrics authMetrics;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
@@ -31,6 +37,14 @@ public class EmailService {
     @Value("${spring.application.name}")
     private String appName;
 
+    private JavaMailSender mailSender() {
+        return mailSenderProvider.getObject();
+    }
+
+    private TemplateEngine templateEngine() {
+        return templateEngineProvider.getObject();
+    }
+
     private String maskEmail(String email) {
         if(email == null || !email.contains("@")) {
             return email;
@@ -57,10 +71,10 @@ public class EmailService {
         };
     }
 
-    @Async
     public void sendOtpMail(String toEmail, String otp, OtpPurposes otpPurposes) {
+        Observation observation = authMetrics.startMessageSend("email", "otp");
         try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
+            MimeMessage mimeMessage = mailSender().createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
 
             helper.setFrom(fromEmail, appName);
@@ -70,18 +84,21 @@ public class EmailService {
             String htmlContent = generateEmailContent(otp, otpPurposes);
             helper.setText(htmlContent, true);
 
-            mailSender.send(mimeMessage);
+            mailSender().send(mimeMessage);
+            authMetrics.messageSent(observation, null);
             log.info("OTP email sent successfully to: {}", maskEmail(toEmail));
         } catch (Exception e) {
+            authMetrics.messageSent(observation, e);
             log.error("Failed to send OTP email to: {}", maskEmail(toEmail), e);
             throw new EmailSendException("Failed to send OTP email", e);
         }
     }
 
-    @Async
+    @Async(TracingConfig.MESSAGING_EXECUTOR)
     public void sendWelcomeHelper(String toEmail, String firstName) {
+        Observation observation = authMetrics.startMessageSend("email", "welcome");
         try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
+            MimeMessage mimeMessage = mailSender().createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
 
             helper.setFrom(fromEmail, appName);
@@ -92,21 +109,24 @@ public class EmailService {
             context.setVariable("firstName", firstName);
             context.setVariable("appName", appName);
 
-            String htmlContent = templateEngine.process("welcome.html", context);
+            String htmlContent = templateEngine().process("welcome.html", context);
             helper.setText(htmlContent, true);
 
-            mailSender.send(mimeMessage);
+            mailSender().send(mimeMessage);
+            authMetrics.messageSent(observation, null);
             log.info("Welcome to {}!", maskEmail(toEmail));
 
         }catch (Exception e) {
+            authMetrics.messageSent(observation, e);
             log.error("Failed to send Welcome to: {}", maskEmail(toEmail), e);
         }
     }
 
-    @Async
+    @Async(TracingConfig.MESSAGING_EXECUTOR)
     public void sendPasswordResetConfirmation(String toEmail, String firstName) {
+        Observation observation = authMetrics.startMessageSend("email", "password_reset");
         try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
+            MimeMessage mimeMessage = mailSender().createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
 
             helper.setFrom(fromEmail, appName);
@@ -120,12 +140,14 @@ public class EmailService {
                     DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
             ));
 
-            String htmlContent = templateEngine.process("password-reset-confirmation", context);
+            String htmlContent = templateEngine().process("password-reset-confirmation", context);
             helper.setText(htmlContent, true);
 
-            mailSender.send(mimeMessage);
+            mailSender().send(mimeMessage);
+            authMetrics.messageSent(observation, null);
             log.info("Password reset successfully to: {}", maskEmail(toEmail));
         } catch (Exception e) {
+            authMetrics.messageSent(observation, e);
             log.error("Failed to send password reset confirmation to: {}", maskEmail(toEmail), e);
         }
     }
@@ -146,6 +168,6 @@ public class EmailService {
             case CHECKOUT -> "checkout-otp";
             default -> "generic-otp";
         };
-        return templateEngine.process(template, context);
+        return templateEngine().process(template, context);
     }
 }
@@ -1,16 +1,25 @@
 package com.cosmetics.server.service;
 
+import com.cosmetics.server.audit.AuditEventType;
+import com.cosmetics.server.audit.AuditLogger;
 import com.cosmetics.server.entity.auth.Users;
+import com.cosmetics.server.exception.RedisUnavailableException;
+import com.cosmetics.server.metrics.AuthMetrics;
+import com.cosmetics.server.profiling.JwtValidationEvent;
+import com.cosmetics.server.resilience.DegradationMode;
+import com.cosmetics.server.resilience.RedisSubsystem;
+import com.cosmetics.server.resilience.ResilientRedisStore;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
@@ -23,22 +32,30 @@ import java.util.function.Function;
 @RequiredArgsConstructor
 public class JwtConfig {
 
-    @Value("{app.jwtSecret}")
+    @Value("${app.jwtSecret}")
     private String jwtSecret;
 
     @Value("${app.jwtExpirationMs}")
     private long accessTokenExpiration;
 
-    @Value("{app.jwtRefreshExpirationMs}")
+    @Value("${app.jwtRefreshExpirationMs}")
     private long refreshTokenExpiration;
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    private static final String BLACKLIST_PREFIX = "blackList:";
+
+    private final ResilientRedisStore redisStore;
+    private final AuthMetrics authMetrics;
+    private final AuditLogger auditLogger;
 
     @PostConstruct
     protected void init() {
         jwtSecret = Base64.getEncoder().encodeToString(jwtSecret.getBytes());
     }
 
+    public long getAccessTokenExpirationMs() {
+        return accessTokenExpiration;
+    }
+
     private Key getSignKey() {
         byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
         return Keys.hmacShaKeyFor(keyBytes);
@@ -46,18 +63,20 @@ public class JwtConfig {
 
     public void blackListToken(String token) {
         try {
-            long expiration = extractExpiration(token).getTime();
-            long ttl = expiration - System.currentTimeMillis();
+            Claims claims = extractAllClaims(token);
+            long ttl = claims.getExpiration().getTime() - System.currentTimeMillis();
 
             if(ttl > 0) {
-                redisTemplate.opsForValue().set(
-                        "blackList: " + token,
-                        "revoked",
-                        Duration.ofMillis(expiration)
-                );
+                redisStore.set(RedisSubsystem.TOKEN_BLACKLIST, BLACKLIST_PREFIX + token, "revoked", Duration.ofMillis(ttl));
             }
+            auditLogger.record(AuditEventType.TOKEN_REVOKED, String.valueOf(claims.get("uid", Long.class)), "success");
+        } catch (RedisUnavailableException e) {
+            // queued locally and replayed into Redis once it is back; until then every token is rejected anyway
+            log.warn("Token blacklist unavailable, revocation deferred");
+            auditLogger.record(AuditEventType.TOKEN_REVOKED, null, "deferred");
         } catch (Exception e) {
             log.warn("Failed to blacklist token", e);
+            auditLogger.record(AuditEventType.TOKEN_REVOKED, null, "error", e.getClass().getSimpleName());
         }
     }
 
@@ -68,13 +87,23 @@ public class JwtConfig {
         claims.put("provider", user.getAuthProvider());
         claims.put("verified", user.isEmailVerified() || user.isPhoneVerified());
 
+        auditLogger.record(AuditEventType.TOKEN_ISSUED, String.valueOf(user.getId()), "success",
+                String.valueOf(user.getAuthProvider()));
         return generateToken(claims, user.getUsername(), accessTokenExpiration);
     }
 
     public String generateRefreshToken(Users user) {
+        return generateRefreshToken(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Refresh token carrying {@code tokenId} as its jti, the session id used by RefreshSessionService.
+     */
+    public String generateRefreshToken(Users user, String tokenId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("uid", user.getId());
         claims.put("type", "refresh");
+        claims.put(Claims.ID, tokenId);
 
         return generateToken(claims, user.getUsername(), refreshTokenExpiration);
     }
@@ -97,41 +126,82 @@ public class JwtConfig {
         return extractClaim(token, claims -> claims.get("uid", Long.class));
     }
 
+    public String extractTokenId(String token) {
+        return extractClaim(token, Claims::getId);
+    }
+
     public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
 
+    /**
+     * Verifies the signature and expiry once; pass the result to {@link #isTokenValid(String, Claims, Users)}
+     * instead of extracting claims one by one.
+     */
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Timer.Sample sample = authMetrics.startTimer();
+        JwtValidationEvent event = new JwtValidationEvent();
+        event.begin();
+        String outcome = "invalid";
+        try {
+            Claims claims = Jwts.parserBuilder()
+                    .setSigningKey(getSignKey())
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+            outcome = "success";
+            return claims;
+        } catch (ExpiredJwtException e) {
+            outcome = "expired";
+            throw e;
+        } finally {
+            authMetrics.jwtParsed(sample, outcome);
+            event.end();
+            if (event.shouldCommit()) {
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
     }
 
-    private Boolean isTokenExpired(String token){
-        return extractExpiration(token).before(new Date());
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     private boolean isTokenBlacklisted(String token) {
         try {
-            return redisTemplate.hasKey("blackList:" + token);
+            boolean blacklisted = redisStore.hasKey(RedisSubsystem.TOKEN_BLACKLIST, BLACKLIST_PREFIX + token);
+            authMetrics.blacklistChecked(blacklisted ? "hit" : "miss");
+            return blacklisted;
+        } catch (RedisUnavailableException e) {
+            // fail-closed: revocation status is unknown, so the token is not accepted
+            authMetrics.blacklistChecked("unavailable");
+            return true;
         } catch (Exception e) {
-            log.warn("Failed to checked token blacklist", e);
-            return false;
+            // same rule as an outage: only a FAIL_OPEN blacklist accepts a token it could not check
+            authMetrics.blacklistChecked("error");
+            log.warn("Failed to check token blacklist", e);
+            return redisStore.mode(RedisSubsystem.TOKEN_BLACKLIST) == DegradationMode.FAIL_CLOSED;
         }
     }
 
-    public Boolean !isTokenBlacklisted(String token, Users user) {
-        final String username = extractUserName(token);
-        return (username.equals(user.getUsername()) &&
-                !isTokenExpired(token)
-                && isTokenBlacklisted(token));
+    public Boolean isTokenValid(String token, Users user) {
+        return isTokenValid(token, extractAllClaims(token), user);
+    }
+
+    public boolean isTokenValid(String token, Claims claims, Users user) {
+        return (claims.getSubject().equals(user.getUsername()) &&
+                !isTokenExpired(claims)
+                && !isTokenBlacklisted(token));
     }
 
 }
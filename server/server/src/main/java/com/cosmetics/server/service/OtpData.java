@@ -0,0 +1,23 @@
+package com.cosmetics.server.service;
+
+import com.cosmetics.server.entity.ENUM.OtpPurposes;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OtpData {
+
+    private String otp;
+    private int attempts;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+    private OtpPurposes purpose;
+    private boolean used;
+}
@@ -1,13 +1,19 @@
 package com.cosmetics.server.service;
 
+import com.cosmetics.server.audit.AuditEventType;
+import com.cosmetics.server.audit.AuditLogger;
 import com.cosmetics.server.entity.ENUM.OtpPurposes;
 import com.cosmetics.server.exception.OtpBlockedException;
 import com.cosmetics.server.exception.OtpCooldownException;
 import com.cosmetics.server.exception.OtpRateLimitException;
+import com.cosmetics.server.metrics.AuthMetrics;
+import com.cosmetics.server.profiling.OtpVerifyEvent;
+import com.cosmetics.server.resilience.RedisSubsystem;
+import com.cosmetics.server.resilience.ResilientRedisStore;
+import com.cosmetics.server.validation.Identifier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.security.SecureRandom;
@@ -19,6 +25,8 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 public class OtpService {
 
+    private static final String SUCCESS = "success";
+
     @Value("${app.otp.expiration}")
     private Duration expiration;
 
@@ -38,16 +46,39 @@ public class OtpService {
     @Value("${app.otp.cooldown}")
     private long cooldown;
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final ResilientRedisStore redisStore;
     private final EmailService emailService;
     private final SmsService smsService;
+    private final AuthMetrics authMetrics;
+    private final AuditLogger auditLogger;
     private final SecureRandom secureRandom = new SecureRandom();
 
     public void sendOtp(String username, OtpPurposes purposes) {
-        validateRateLimit(username, purposes);
+        Identifier identifier = Identifier.parse(username);
+        try {
+            doSendOtp(identifier, purposes);
+            authMetrics.otpSend(purposes, "sent");
+            auditLogger.record(AuditEventType.OTP_SENT, identifier.getNormalized(), "sent", purposes.name());
+        } catch (RuntimeException e) {
+            String outcome = sendOutcome(e);
+            authMetrics.otpSend(purposes, outcome);
+            auditLogger.record(AuditEventType.OTP_SENT, identifier.getNormalized(), outcome, purposes.name());
+            throw e;
+        }
+    }
+
+    private String sendOutcome(RuntimeException e) {
+        if (e instanceof OtpBlockedException) return "blocked";
+        if (e instanceof OtpRateLimitException) return "rate_limited";
+        if (e instanceof OtpCooldownException) return "cooldown";
+        return "error";
+    }
+
+    private void doSendOtp(Identifier identifier, OtpPurposes purposes) {
+        validateRateLimit(identifier, purposes);
 
         String otp = generateOtp();
-        String key = buildOtpKey(username, purposes);
+        String key = buildOtpKey(identifier, purposes);
 
         OtpData otpData = OtpData.builder()
                 .otp(otp)
@@ -59,22 +90,23 @@ public class OtpService {
                 .build();
 
         // store OTP with TTL
-        redisTemplate.opsForValue().set(key, otpData, expiration);
+        redisStore.set(RedisSubsystem.OTP, key, otpData, expiration);
 
-        if (isEmail(username)) {
-            emailService.sendOtpMail(username, otp, purposes);
+        // sent on this thread, so a failed send reaches sendOtp and is audited as an error
+        if (identifier.isEmail()) {
+            emailService.sendOtpMail(identifier.getNormalized(), otp, purposes);
         } else {
-            smsService.sendOtp(username, otp, purposes);
+            smsService.sendOtp(identifier.getNormalized(), otp, purposes);
         }
 
-        updateResendTracking(username, purposes);
+        updateResendTracking(identifier, purposes);
 
-        log.info("OTP sent to {} for purpose {}", maskUsername(username), purposes);
+        log.info("OTP sent to {} for purpose {}", identifier.getMasked(), purposes);
     }
 
-    private void updateResendTracking(String username, OtpPurposes purposes) {
-        String resendKey = buildResendKey(username, purposes);
-        ResendTracker tracker = (ResendTracker) redisTemplate.opsForValue().get(resendKey);
+    private void updateResendTracking(Identifier identifier, OtpPurposes purposes) {
+        String resendKey = buildResendKey(identifier, purposes);
+        ResendTracker tracker = (ResendTracker) redisStore.get(RedisSubsystem.RATE_LIMIT, resendKey);
 
         LocalDateTime now = LocalDateTime.now();
         if (tracker == null) {
@@ -89,66 +121,89 @@ public class OtpService {
         }
 
         // store tracker with resendWindow TTL (resendWindow in millis)
-        redisTemplate.opsForValue().set(resendKey, tracker, Duration.ofMillis(resendWindow));
+        redisStore.set(RedisSubsystem.RATE_LIMIT, resendKey, tracker, Duration.ofMillis(resendWindow));
     }
 
     public boolean verifyOtp(String username, String otp, OtpPurposes purposes) {
-        String key = buildOtpKey(username, purposes);
-        OtpData otpData = (OtpData) redisTemplate.opsForValue().get(key);
+        Identifier identifier = Identifier.parse(username);
+        OtpVerifyEvent event = new OtpVerifyEvent();
+        event.begin();
+        String outcome = "error";
+        try {
+            outcome = doVerifyOtp(identifier, otp, purposes);
+            return SUCCESS.equals(outcome);
+        } finally {
+            authMetrics.otpVerify(purposes, outcome);
+            auditLogger.record(AuditEventType.OTP_VERIFY, identifier.getNormalized(), outcome, purposes.name());
+            event.end();
+            if (event.shouldCommit()) {
+                event.purpose = purposes.name();
+                event.verified = SUCCESS.equals(outcome);
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * @return verification outcome, {@link #SUCCESS} when the code matched
+     */
+    private String doVerifyOtp(Identifier identifier, String otp, OtpPurposes purposes) {
+        String key = buildOtpKey(identifier, purposes);
+        OtpData otpData = (OtpData) redisStore.get(RedisSubsystem.OTP, key);
 
         if (otpData == null) {
-            log.warn("OTP expired or not found for {} and purpose {}", maskUsername(username), purposes);
-            return false;
+            log.warn("OTP expired or not found for {} and purpose {}", identifier.getMasked(), purposes);
+            return "not_found";
         }
 
         LocalDateTime now = LocalDateTime.now();
         if (otpData.getExpiresAt() != null && now.isAfter(otpData.getExpiresAt())) {
-            redisTemplate.delete(key);
-            log.warn("OTP expired for {} and purpose {}", maskUsername(username), purposes);
-            return false;
+            redisStore.delete(RedisSubsystem.OTP, key);
+            log.warn("OTP expired for {} and purpose {}", identifier.getMasked(), purposes);
+            return "expired";
         }
 
         if (otpData.isUsed()) {
-            log.warn("OTP already used for {} and purpose {}", maskUsername(username), purposes);
-            return false;
+            log.warn("OTP already used for {} and purpose {}", identifier.getMasked(), purposes);
+            return "already_used";
         }
 
         otpData.setAttempts(otpData.getAttempts() + 1);
 
         if (!otp.equals(otpData.getOtp())) {
             if (otpData.getAttempts() >= maxAttempts) {
-                blockUser(username, purposes);
-                redisTemplate.delete(key);
-                log.warn("Max OTP attempts exceeded for {} and purpose {}", maskUsername(username), purposes);
+                blockUser(identifier, purposes);
+                redisStore.delete(RedisSubsystem.OTP, key);
+                log.warn("Max OTP attempts exceeded for {} and purpose {}", identifier.getMasked(), purposes);
+                return "max_attempts";
+            }
+            // keep the remaining TTL
+            Duration remaining = Duration.between(now, otpData.getExpiresAt());
+            if (!remaining.isNegative() && !remaining.isZero()) {
+                redisStore.set(RedisSubsystem.OTP, key, otpData, remaining);
             } else {
-                // keep the remaining TTL
-                Duration remaining = Duration.between(now, otpData.getExpiresAt());
-                if (!remaining.isNegative() && !remaining.isZero()) {
-                    redisTemplate.opsForValue().set(key, otpData, remaining);
-                } else {
-                    redisTemplate.delete(key);
-                }
+                redisStore.delete(RedisSubsystem.OTP, key);
             }
-            return false;
+            return "invalid";
         }
 
         // correct otp
         otpData.setUsed(true);
-        // keep record for short time for audit (5 seconds)
-        redisTemplate.opsForValue().set(key, otpData, Duration.ofSeconds(5));
-        clearResendTracking(username, purposes);
+        // keep the used marker briefly so a replayed code reads as already_used; the audit trail is in AuditLogger
+        redisStore.set(RedisSubsystem.OTP, key, otpData, Duration.ofSeconds(5));
+        clearResendTracking(identifier, purposes);
 
-        log.info("OTP verified successfully for {} and purpose {}", maskUsername(username), purposes);
-        return true;
+        log.info("OTP verified successfully for {} and purpose {}", identifier.getMasked(), purposes);
+        return SUCCESS;
     }
 
-    private void validateRateLimit(String username, OtpPurposes purposes) {
-        if (isBlocked(username, purposes)) {
+    private void validateRateLimit(Identifier identifier, OtpPurposes purposes) {
+        if (isBlocked(identifier, purposes)) {
             throw new OtpBlockedException("User is blocked for OTP requests");
         }
 
-        String resendKey = buildResendKey(username, purposes);
-        ResendTracker tracker = (ResendTracker) redisTemplate.opsForValue().get(resendKey);
+        String resendKey = buildResendKey(identifier, purposes);
+        ResendTracker tracker = (ResendTracker) redisStore.get(RedisSubsystem.RATE_LIMIT, resendKey);
 
         if (tracker != null) {
             if (tracker.getCount() >= resendLimit) {
@@ -162,75 +217,43 @@ public class OtpService {
         }
     }
 
-    private void clearResendTracking(String username, OtpPurposes purposes) {
-        String resendKey = buildResendKey(username, purposes);
-        redisTemplate.delete(resendKey);
+    private void clearResendTracking(Identifier identifier, OtpPurposes purposes) {
+        String resendKey = buildResendKey(identifier, purposes);
+        redisStore.delete(RedisSubsystem.RATE_LIMIT, resendKey);
     }
 
-    private boolean isBlocked(String username, OtpPurposes purposes) {
-        String blockKey = buildBlockKey(username, purposes);
-        return Boolean.TRUE.equals(redisTemplate.hasKey(blockKey));
+    private boolean isBlocked(Identifier identifier, OtpPurposes purposes) {
+        String blockKey = buildBlockKey(identifier, purposes);
+        return redisStore.hasKey(RedisSubsystem.RATE_LIMIT, blockKey);
     }
 
-    private void blockUser(String username, OtpPurposes purposes) {
-        String blockKey = buildBlockKey(username, purposes);
+    private void blockUser(Identifier identifier, OtpPurposes purposes) {
+        String blockKey = buildBlockKey(identifier, purposes);
         // set blocked value with TTL blockDuration (millis)
-        redisTemplate.opsForValue().set(blockKey, "blocked", Duration.ofMillis(blockDuration));
+        redisStore.set(RedisSubsystem.RATE_LIMIT, blockKey, "blocked", Duration.ofMillis(blockDuration));
     }
 
     private String generateOtp() {
         return String.format("%06d", secureRandom.nextInt(1_000_000));
     }
 
-    private String buildOtpKey(String username, OtpPurposes purposes) {
-        return String.format("otp:%s:%s", normalizationUserName(username), purposes);
-    }
-
-    private String buildResendKey(String username, OtpPurposes purposes) {
-        return String.format("otp_resend:%s:%s", normalizationUserName(username), purposes);
+    String buildOtpKey(String username, OtpPurposes purposes) {
+        return buildOtpKey(Identifier.parse(username), purposes);
     }
 
-    private String buildBlockKey(String username, OtpPurposes purposes) {
-        return String.format("otp_block:%s:%s", normalizationUserName(username), purposes);
+    String buildOtpKey(Identifier identifier, OtpPurposes purposes) {
+        return "otp:" + identifier.getNormalized() + ":" + purposes;
     }
 
-    private String normalizationUserName(String username) {
-        if (username == null) return "";
-        username = username.trim();
-        if (isEmail(username)) {
-            return username.toLowerCase();
-        } else {
-            // basic phone cleanup: keep digits and leading plus
-            String cleaned = username.replaceAll("[^+\\d]", "");
-            return cleaned;
-        }
+    private String buildResendKey(Identifier identifier, OtpPurposes purposes) {
+        return "otp_resend:" + identifier.getNormalized() + ":" + purposes;
     }
 
-    private boolean isEmail(String username) {
-        return username != null && username.contains("@");
+    private String buildBlockKey(Identifier identifier, OtpPurposes purposes) {
+        return "otp_block:" + identifier.getNormalized() + ":" + purposes;
     }
 
-    private String maskUsername(String username) {
-        if (username == null) return "***";
-        username = username.trim();
-        if (isEmail(username)) {
-            String[] parts = username.split("@", 2);
-            String local = parts[0];
-            String domain = parts.length > 1 ? parts[1] : "";
-            int visible = Math.min(3, local.length());
-            return local.substring(0, visible) + "***@" + domain;
-        } else {
-            // for phone: show last 4 digits if possible
-            String cleaned = normalizationUserName(username);
-            if (cleaned.length() <= 4) {
-                return "****";
-            } else if (cleaned.startsWith("+")) {
-                String last = cleaned.substring(Math.max(0, cleaned.length() - 4));
-                return "+" + "***" + last;
-            } else {
-                String last = cleaned.substring(cleaned.length() - 4);
-                return "***" + last;
-            }
-        }
+    String maskUsername(String username) {
+        return Identifier.parse(username).getMasked();
     }
 }
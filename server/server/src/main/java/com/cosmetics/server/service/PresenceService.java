@@ -0,0 +1,221 @@
+package com.cosmetics.server.service;
+
+import com.cosmetics.server.DTO.response.DevicePresenceResponse;
+import com.cosmetics.server.DTO.response.OnlineUsersResponse;
+import com.cosmetics.server.DTO.response.PresenceResponse;
+import com.cosmetics.server.pattern.RedisKetPattern;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Online presence kept entirely in Redis.
+ * <p>
+ * PRESENCE:ONLINE is a sorted set of user ids scored by last heartbeat (epoch millis), so
+ * "who is online" is a ZCOUNT / ZREVRANGEBYSCORE over the live window, O(log n + m).
+ * USER_SESSION:{userId} holds the user's devices scored the same way, and USER_DEVICE:{userId}:{deviceId}
+ * keeps the device details. Both per-user keys expire with the heartbeat TTL.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PresenceService {
+
+    @Value("${app.presence.ttl:PT2M}")
+    private Duration presenceTtl;
+
+    // skip redundant heartbeats from the same device inside this window
+    @Value("${app.presence.heartbeat-interval:PT30S}")
+    private Duration heartbeatInterval;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Map<String, Long> lastHeartbeats = new ConcurrentHashMap<>();
+
+    public void heartbeat(Long userId, String deviceId, String ipAddress, String userAgent) {
+        long now = System.currentTimeMillis();
+        String heartbeatKey = userId + ":" + deviceId;
+        Long previous = lastHeartbeats.get(heartbeatKey);
+        if (previous != null && now - previous < heartbeatInterval.toMillis()) {
+            return;
+        }
+        lastHeartbeats.put(heartbeatKey, now);
+
+        String member = userId.toString();
+        String sessionKey = RedisKetPattern.buildUserSessionKey(member);
+        String deviceKey = RedisKetPattern.buildUserDeviceKey(member, deviceId);
+
+        Map<String, String> device = new LinkedHashMap<>();
+        device.put("ip", ipAddress == null ? "" : ipAddress);
+        device.put("userAgent", userAgent == null ? "" : userAgent);
+        device.put("lastSeen", Long.toString(now));
+
+        try {
+            stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    ops.opsForZSet().add(RedisKetPattern.PRESENCE_ONLINE_KEY, member, now);
+                    ops.opsForZSet().add(sessionKey, deviceId, now);
+                    ops.expire(sessionKey, presenceTtl);
+                    ops.opsForHash().putIfAbsent(deviceKey, "firstSeen", Long.toString(now));
+                    ops.opsForHash().putAll(deviceKey, device);
+                    ops.expire(deviceKey, presenceTtl);
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            // presence is best effort, never fail the request for it
+            lastHeartbeats.remove(heartbeatKey);
+            log.debug("Presence heartbeat failed for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    public void disconnect(Long userId, String deviceId) {
+        String member = userId.toString();
+        String sessionKey = RedisKetPattern.buildUserSessionKey(member);
+        lastHeartbeats.remove(member + ":" + deviceId);
+
+        stringRedisTemplate.opsForZSet().remove(sessionKey, deviceId);
+        stringRedisTemplate.delete(RedisKetPattern.buildUserDeviceKey(member, deviceId));
+
+        Long liveDevices = stringRedisTemplate.opsForZSet().count(sessionKey, cutoff(), Double.POSITIVE_INFINITY);
+        if (liveDevices == null || liveDevices == 0) {
+            stringRedisTemplate.opsForZSet().remove(RedisKetPattern.PRESENCE_ONLINE_KEY, member);
+        }
+    }
+
+    /**
+     * Batch presence lookup, one ZMSCORE round trip for all ids.
+     */
+    public Map<Long, PresenceResponse> getPresence(Collection<Long> userIds) {
+        Map<Long, PresenceResponse> result = new LinkedHashMap<>();
+        if (userIds.isEmpty()) {
+            return result;
+        }
+
+        List<Long> ids = new ArrayList<>(userIds);
+        Object[] members = ids.stream().map(String::valueOf).toArray();
+        List<Double> scores = stringRedisTemplate.opsForZSet().score(RedisKetPattern.PRESENCE_ONLINE_KEY, members);
+
+        double cutoff = cutoff();
+        for (int i = 0; i < ids.size(); i++) {
+            Double score = scores == null ? null : scores.get(i);
+            result.put(ids.get(i), PresenceResponse.builder()
+                    .userId(ids.get(i))
+                    .online(score != null && score >= cutoff)
+                    .lastSeenAt(score == null ? null : toDateTime(score.longValue()))
+                    .build());
+        }
+        return result;
+    }
+
+    public OnlineUsersResponse getOnlineUsers(long offset, long limit) {
+        double cutoff = cutoff();
+        ZSetOperations<String, String> zSet = stringRedisTemplate.opsForZSet();
+
+        Long total = zSet.count(RedisKetPattern.PRESENCE_ONLINE_KEY, cutoff, Double.POSITIVE_INFINITY);
+        Set<ZSetOperations.TypedTuple<String>> page = zSet.reverseRangeByScoreWithScores(
+                RedisKetPattern.PRESENCE_ONLINE_KEY, cutoff, Double.POSITIVE_INFINITY, offset, limit);
+
+        List<PresenceResponse> users = new ArrayList<>();
+        if (page != null) {
+            for (ZSetOperations.TypedTuple<String> tuple : page) {
+                users.add(PresenceResponse.builder()
+                        .userId(Long.valueOf(tuple.getValue()))
+                        .online(true)
+                        .lastSeenAt(toDateTime(tuple.getScore().longValue()))
+                        .build());
+            }
+        }
+
+        return OnlineUsersResponse.builder()
+                .totalOnline(total == null ? 0 : total)
+                .users(users)
+                .build();
+    }
+
+    public List<DevicePresenceResponse> getDevices(Long userId) {
+        String member = userId.toString();
+        Set<String> deviceIds = stringRedisTemplate.opsForZSet().reverseRangeByScore(
+                RedisKetPattern.buildUserSessionKey(member), cutoff(), Double.POSITIVE_INFINITY);
+        if (deviceIds == null || deviceIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> orderedIds = new ArrayList<>(deviceIds);
+        List<Object> details = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (String deviceId : orderedIds) {
+                    ops.opsForHash().entries(RedisKetPattern.buildUserDeviceKey(member, deviceId));
+                }
+                return null;
+            }
+        });
+
+        List<DevicePresenceResponse> devices = new ArrayList<>(orderedIds.size());
+        for (int i = 0; i < orderedIds.size(); i++) {
+            @SuppressWarnings("unchecked")
+            Map<String, String> device = (Map<String, String>) details.get(i);
+            devices.add(DevicePresenceResponse.builder()
+                    .deviceId(orderedIds.get(i))
+                    .ipAddress(device.get("ip"))
+                    .userAgent(device.get("userAgent"))
+                    .firstSeenAt(parseMillis(device.get("firstSeen")))
+                    .lastSeenAt(parseMillis(device.get("lastSeen")))
+                    .build());
+        }
+        return devices;
+    }
+
+    /**
+     * Drop users whose last heartbeat fell out of the live window.
+     */
+    @Scheduled(fixedDelayString = "${app.presence.cleanup-interval-ms:60000}")
+    public void evictStale() {
+        double cutoff = cutoff();
+        try {
+            Long removed = stringRedisTemplate.opsForZSet()
+                    .removeRangeByScore(RedisKetPattern.PRESENCE_ONLINE_KEY, Double.NEGATIVE_INFINITY, cutoff);
+            if (removed != null && removed > 0) {
+                log.debug("Evicted {} stale presence entries", removed);
+            }
+        } catch (Exception e) {
+            log.warn("Presence cleanup failed: {}", e.getMessage());
+        }
+        lastHeartbeats.values().removeIf(seen -> seen < cutoff);
+    }
+
+    private double cutoff() {
+        return System.currentTimeMillis() - presenceTtl.toMillis();
+    }
+
+    private LocalDateTime parseMillis(String millis) {
+        return millis == null || millis.isEmpty() ? null : toDateTime(Long.parseLong(millis));
+    }
+
+    private LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
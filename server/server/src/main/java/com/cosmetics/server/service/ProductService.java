@@ -0,0 +1,88 @@
+package com.cosmetics.server.service;
+
+import com.cosmetics.server.DTO.response.PageResponse;
+import com.cosmetics.server.DTO.response.ProductResponse;
+import com.cosmetics.server.datasource.PrimaryReads;
+import com.cosmetics.server.entity.Product;
+import com.cosmetics.server.image.ImageEncoding;
+import com.cosmetics.server.image.ImageVariant;
+import com.cosmetics.server.profiling.CatalogQueryEvent;
+import com.cosmetics.server.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class ProductService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final ProductRepository productRepository;
+    private final CatalogVersionService catalogVersionService;
+
+    /**
+     * Validator for a product page: the catalog version plus the page coordinates. Costs no database access.
+     */
+    public String productsPageTag(int page, int size) {
+        return "c" + catalogVersionService.current() + "-p" + page + "-s" + size;
+    }
+
+    /**
+     * Validator for a single product, from its version stamp; empty when the product does not exist.
+     */
+    public Optional<String> productTag(Long id) {
+        return productRepository.findVersionById(id).map(version -> "p" + id + "-v" + version);
+    }
+
+    /**
+     * Read from the primary: the body is cached under {@link #productsPageTag} and fills the product region.
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<ProductResponse> getProducts(int page, int size) {
+        PageRequest pageable = PageRequest.of(page, size, Sort.by("id"));
+        return CatalogQueryEvent.record("products:page", () -> PrimaryReads.call(() ->
+                PageResponse.of(productRepository.findAllBy(pageable), ProductService::toResponse)),
+                response -> response.getContent().size());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ProductResponse> getProduct(Long id) {
+        return CatalogQueryEvent.record("products:get", () -> PrimaryReads.call(() ->
+                productRepository.findWithBrandById(id).map(ProductService::toResponse)),
+                product -> product.isPresent() ? 1 : 0);
+    }
+
+    private static Map<String, String> imageUrls(String imageHash) {
+        if (imageHash == null) {
+            return null;
+        }
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (ImageVariant variant : ImageVariant.values()) {
+            urls.put(variant.pathName(), variant.urlPath(imageHash, ImageEncoding.JPEG));
+        }
+        return urls;
+    }
+
+    static ProductResponse toResponse(Product product) {
+        return ProductResponse.builder()
+                .id(product.getId())
+                .sku(product.getSku())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .quantity(product.getQuantity())
+                .imageUrl(product.getImageUrl())
+                .imageHash(product.getImageHash())
+                .images(imageUrls(product.getImageHash()))
+                .brandId(product.getBrand() != null ? product.getBrand().getId() : null)
+                .brandName(product.getBrand() != null ? product.getBrand().getName() : null)
+                .version(product.getVersion())
+                .build();
+    }
+}
@@ -0,0 +1,353 @@
+package com.cosmetics.server.service;
+
+import com.cosmetics.server.audit.AuditEventType;
+import com.cosmetics.server.audit.AuditLogger;
+import com.cosmetics.server.entity.auth.Token;
+import com.cosmetics.server.entity.auth.Users;
+import com.cosmetics.server.pattern.RedisKetPattern;
+import com.cosmetics.server.repository.UserTokenRepository;
+import com.cosmetics.server.resilience.RedisGuard;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Refresh-token sessions, indexed per user in a Redis sorted set (REFRESH_SESSIONS:{userId}, token id scored by
+ * expiry). Checks, counts and "log out everywhere" are single Redis commands; user_tokens is kept as the durable
+ * record and written behind.
+ * <p>
+ * Opening a session trims expired members and evicts the oldest sessions beyond max-per-user in one script, so
+ * concurrent logins cannot overshoot the cap. Pending user_tokens writes are coalesced in a hash (open, revoke,
+ * revoke-all entries) and flushed like {@link UserActivityBuffer}: renamed to a per-flush snapshot key first,
+ * deleted once the database accepted it (see {@link WriteBehindSnapshots}). Flushes are idempotent.
+ * <p>
+ * While Redis is unavailable sessions are read and written in user_tokens directly. Those sessions are not in the
+ * Redis index afterwards, so their refresh fails once Redis is back and the user signs in again. Revokes made
+ * during the outage are kept locally and replayed into the index (ZREM / DEL) before this instance's next Redis
+ * read or write and by {@link #reconcile()}, so a revoked session does not come back with Redis.
+ */
+@Service
+@Slf4j
+public class RefreshSessionService {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    // KEYS[1] session set; ARGV token id, expiry (ms), now (ms), max sessions. Returns the evicted token ids.
+    private static final RedisScript<List> OPEN_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[3])
+            redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+            local excess = redis.call('ZCARD', KEYS[1]) - tonumber(ARGV[4])
+            local evicted = {}
+            if excess > 0 then
+                evicted = redis.call('ZRANGE', KEYS[1], 0, excess - 1)
+                redis.call('ZREMRANGEBYRANK', KEYS[1], 0, excess - 1)
+            end
+            local newest = redis.call('ZRANGE', KEYS[1], -1, -1, 'WITHSCORES')
+            redis.call('PEXPIREAT', KEYS[1], newest[2])
+            return evicted
+            """, List.class);
+
+    private static final String OPEN = "o:";
+    private static final String REVOKE = "r:";
+    private static final String REVOKE_ALL = "u:";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO user_tokens (user_id, token_id, refresh_token_hash, ip, create_at, expires_at, revoked)
+            VALUES (?, ?, ?, ?, ?, ?, false)
+            ON CONFLICT (token_id) DO NOTHING
+            """;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisGuard redisGuard;
+    private final JwtConfig jwtConfig;
+    private final UserTokenRepository tokenRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditLogger auditLogger;
+    private final int maxSessions;
+    private final int batchSize;
+    private final Duration orphanAfter;
+    // revokes applied only to user_tokens while Redis was unavailable: token id -> user id, and user ids
+    private final Map<String, Long> degradedRevokes = new ConcurrentHashMap<>();
+    private final Set<Long> degradedRevokeAlls = ConcurrentHashMap.newKeySet();
+
+    public RefreshSessionService(StringRedisTemplate redisTemplate,
+                                 RedisGuard redisGuard,
+                                 JwtConfig jwtConfig,
+                                 UserTokenRepository tokenRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 AuditLogger auditLogger,
+                                 @Value("${app.sessions.max-per-user:5}") int maxSessions,
+                                 @Value("${app.sessions.sync.batch-size:500}") int batchSize,
+                                 @Value("${app.sessions.sync.orphan-after:PT5M}") Duration orphanAfter) {
+        this.redisTemplate = redisTemplate;
+        this.redisGuard = redisGuard;
+        this.jwtConfig = jwtConfig;
+        this.tokenRepository = tokenRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.auditLogger = auditLogger;
+        this.maxSessions = Math.max(1, maxSessions);
+        this.batchSize = batchSize;
+        this.orphanAfter = orphanAfter;
+    }
+
+    /**
+     * Issues a refresh token for a new session, evicting the user's oldest sessions beyond the cap.
+     */
+    public String open(Users user, String ip) {
+        String tokenId = UUID.randomUUID().toString();
+        String refreshToken = jwtConfig.generateRefreshToken(user, tokenId);
+        long expiresAt = jwtConfig.extractExpiration(refreshToken).getTime();
+        long now = System.currentTimeMillis();
+        String record = user.getId() + "|" + now + "|" + expiresAt + "|" + digest(refreshToken) + "|" + (ip == null ? "" : ip);
+
+        List<String> evicted = redisGuard.call(() -> {
+            replayDegradedRevokes();
+            List<String> result = openInRedis(user.getId(), tokenId, expiresAt, now);
+            HashOperations<String, String, String> buffer = hash();
+            buffer.put(RedisKetPattern.REFRESH_SESSION_SYNC_BUFFER, OPEN + tokenId, record);
+            for (String evictedId : result) {
+                buffer.put(RedisKetPattern.REFRESH_SESSION_SYNC_BUFFER, REVOKE + evictedId, "");
+            }
+            return result;
+        }, () -> {
+            insert(record, tokenId);
+            return List.of();
+        });
+
+        if (!evicted.isEmpty()) {
+            auditLogger.record(AuditEventType.TOKEN_REVOKED, String.valueOf(user.getId()), "success",
+                    "session-limit:" + evicted.size());
+        }
+        return refreshToken;
+    }
+
+    /**
+     * Signature and expiry are checked by parsing; the session must still be in the user's set.
+     */
+    public boolean isActive(String refreshToken) {
+        Long userId = jwtConfig.extractUserId(refreshToken);
+        String tokenId = jwtConfig.extractTokenId(refreshToken);
+        if (userId == null || tokenId == null) {
+            return false;
+        }
+        return redisGuard.call(() -> {
+            replayDegradedRevokes();
+            Double expiresAt = redisTemplate.opsForZSet().score(RedisKetPattern.buildRefreshSessionsKey(userId), tokenId);
+            return expiresAt != null && expiresAt > System.currentTimeMillis();
+        }, () -> tokenRepository.findByTokenIdAndRevokedFalse(tokenId)
+                .filter(Token::isActive)
+                .isPresent());
+    }
+
+    /**
+     * Number of unexpired sessions, or -1 while Redis is unavailable.
+     */
+    public long activeSessions(Long userId) {
+        return redisGuard.call(() -> {
+            replayDegradedRevokes();
+            Long count = redisTemplate.opsForZSet().count(RedisKetPattern.buildRefreshSessionsKey(userId),
+                    System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+            return count != null ? count : 0L;
+        }, () -> -1L);
+    }
+
+    public void revoke(String refreshToken) {
+        Long userId = jwtConfig.extractUserId(refreshToken);
+        String tokenId = jwtConfig.extractTokenId(refreshToken);
+        if (userId == null || tokenId == null) {
+            return;
+        }
+        redisGuard.call(() -> {
+            redisTemplate.opsForZSet().remove(RedisKetPattern.buildRefreshSessionsKey(userId), tokenId);
+            hash().put(RedisKetPattern.REFRESH_SESSION_SYNC_BUFFER, REVOKE + tokenId, "");
+            return null;
+        }, () -> {
+            transactionTemplate.execute(status -> tokenRepository.revokeByTokenId(tokenId));
+            degradedRevokes.put(tokenId, userId);
+            return null;
+        });
+    }
+
+    /**
+     * "Log out everywhere": drops the whole session set in one command.
+     */
+    public void revokeAll(Long userId) {
+        long now = System.currentTimeMillis();
+        redisGuard.call(() -> {
+            redisTemplate.delete(RedisKetPattern.buildRefreshSessionsKey(userId));
+            hash().put(RedisKetPattern.REFRESH_SESSION_SYNC_BUFFER, REVOKE_ALL + userId, Long.toString(now));
+            return null;
+        }, () -> {
+            transactionTemplate.execute(status -> tokenRepository.revokeAllUserTokens(userId, toLocal(now)));
+            degradedRevokeAlls.add(userId);
+            return null;
+        });
+        auditLogger.record(AuditEventType.TOKEN_REVOKED, String.valueOf(userId), "success", "all-sessions");
+    }
+
+    @Scheduled(fixedDelayString = "${app.sessions.sync.flush-interval-ms:5000}")
+    public void flush() {
+        try {
+            flushBuffer();
+        } catch (Exception e) {
+            // buffer stays in Redis and is retried on the next tick
+            log.warn("Refresh session sync failed, will retry", e);
+        }
+    }
+
+    /**
+     * Replays revokes made during an outage into the session index once the breaker has closed; one that fails
+     * stays queued for the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.sessions.reconcile-interval-ms:5000}")
+    public void reconcile() {
+        if ((degradedRevokes.isEmpty() && degradedRevokeAlls.isEmpty()) || !redisGuard.isClosed()) {
+            return;
+        }
+        boolean replayed = redisGuard.call(() -> {
+            replayDegradedRevokes();
+            return true;
+        }, () -> false);
+        if (replayed) {
+            log.info("Replayed refresh session revokes made while Redis was unavailable");
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Runs inside a guarded Redis call; a failure leaves the remaining entries queued.
+     */
+    private void replayDegradedRevokes() {
+        if (degradedRevokes.isEmpty() && degradedRevokeAlls.isEmpty()) {
+            return;
+        }
+        for (Long userId : degradedRevokeAlls) {
+            redisTemplate.delete(RedisKetPattern.buildRefreshSessionsKey(userId));
+            degradedRevokeAlls.remove(userId);
+        }
+        for (Map.Entry<String, Long> revoked : degradedRevokes.entrySet()) {
+            redisTemplate.opsForZSet().remove(RedisKetPattern.buildRefreshSessionsKey(revoked.getValue()), revoked.getKey());
+            degradedRevokes.remove(revoked.getKey(), revoked.getValue());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> openInRedis(Long userId, String tokenId, long expiresAt, long now) {
+        List<String> evicted = redisTemplate.execute(OPEN_SCRIPT, List.of(RedisKetPattern.buildRefreshSessionsKey(userId)),
+                tokenId, Long.toString(expiresAt), Long.toString(now), Integer.toString(maxSessions));
+        return evicted != null ? evicted : List.of();
+    }
+
+    private void flushBuffer() {
+        WriteBehindSnapshots snapshots = new WriteBehindSnapshots(redisTemplate,
+                RedisKetPattern.REFRESH_SESSION_SYNC_BUFFER, orphanAfter);
+        // oldest first: a revoke never lands in an older snapshot than the open it revokes
+        for (String snapshotKey : snapshots.claim()) {
+            flushSnapshot(snapshotKey);
+            snapshots.release(snapshotKey);
+        }
+    }
+
+    private void flushSnapshot(String snapshotKey) {
+        // opens before revokes, so a session opened and revoked within one interval ends up revoked
+        List<Map.Entry<String, String>> opens = new ArrayList<>();
+        List<String> revokes = new ArrayList<>();
+        List<Map.Entry<String, String>> revokeAlls = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().count(batchSize).build();
+        try (Cursor<Map.Entry<String, String>> cursor = hash().scan(snapshotKey, options)) {
+            while (cursor.hasNext()) {
+                Map.Entry<String, String> entry = cursor.next();
+                String field = entry.getKey();
+                if (field.startsWith(OPEN)) {
+                    opens.add(entry);
+                } else if (field.startsWith(REVOKE)) {
+                    revokes.add(field.substring(REVOKE.length()));
+                } else if (field.startsWith(REVOKE_ALL)) {
+                    revokeAlls.add(entry);
+                }
+            }
+        }
+
+        for (int from = 0; from < opens.size(); from += batchSize) {
+            List<Map.Entry<String, String>> batch = opens.subList(from, Math.min(opens.size(), from + batchSize));
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, entry) -> {
+                String[] parts = entry.getValue().split("\\|", 5);
+                ps.setLong(1, Long.parseLong(parts[0]));
+                ps.setString(2, entry.getKey().substring(OPEN.length()));
+                ps.setString(3, parts[3]);
+                ps.setString(4, parts[4].isEmpty() ? null : parts[4]);
+                ps.setTimestamp(5, Timestamp.valueOf(toLocal(Long.parseLong(parts[1]))));
+                ps.setTimestamp(6, Timestamp.valueOf(toLocal(Long.parseLong(parts[2]))));
+            });
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int from = 0; from < revokes.size(); from += batchSize) {
+                tokenRepository.revokeByTokenIds(revokes.subList(from, Math.min(revokes.size(), from + batchSize)));
+            }
+            for (Map.Entry<String, String> entry : revokeAlls) {
+                tokenRepository.revokeAllUserTokens(Long.parseLong(entry.getKey().substring(REVOKE_ALL.length())),
+                        toLocal(Long.parseLong(entry.getValue())));
+            }
+        });
+
+        log.debug("Synced {} opened, {} revoked and {} revoke-all session entries from {}",
+                opens.size(), revokes.size(), revokeAlls.size(), snapshotKey);
+    }
+
+    private void insert(String record, String tokenId) {
+        String[] parts = record.split("\\|", 5);
+        jdbcTemplate.update(INSERT_SQL, Long.parseLong(parts[0]), tokenId, parts[3], parts[4].isEmpty() ? null : parts[4],
+                Timestamp.valueOf(toLocal(Long.parseLong(parts[1]))), Timestamp.valueOf(toLocal(Long.parseLong(parts[2]))));
+    }
+
+    private static LocalDateTime toLocal(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZONE);
+    }
+
+    // refresh tokens are high-entropy signed JWTs, a plain digest is enough to look one up without storing it
+    private static String digest(String refreshToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(refreshToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private HashOperations<String, String, String> hash() {
+        return redisTemplate.opsForHash();
+    }
+}
@@ -0,0 +1,19 @@
+package com.cosmetics.server.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResendTracker {
+
+    private int count;
+    private LocalDateTime firstSentAt;
+    private LocalDateTime lastSentAt;
+}
@@ -2,6 +2,8 @@ package com.cosmetics.server.service;
 
 import com.cosmetics.server.entity.ENUM.OtpPurposes;
 import com.cosmetics.server.exception.SmsSendException;
+import com.cosmetics.server.metrics.AuthMetrics;
+import io.micrometer.observation.Observation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,7 +11,6 @@ import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -35,17 +36,25 @@ public class SmsService {
     private String appName;
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final AuthMetrics authMetrics;
 
-    @Async
     public void sendOtp(String phoneNumber, String otp, OtpPurposes purposes) {
         String message = generateSmsMessage(otp, purposes);
 
         String redisKey = "OTP:" + phoneNumber;
         redisTemplate.opsForValue().set(redisKey, otp, Duration.ofMinutes(5));
 
-        switch (smsProvider.toLowerCase()) {
-            case "mock" -> sendViaMock(phoneNumber, message);
-            default -> sendViaMock(phoneNumber, message); // fallback
+        Observation observation = authMetrics.startMessageSend("sms", "otp");
+        try {
+            switch (smsProvider.toLowerCase()) {
+                case "mock" -> sendViaMock(phoneNumber, message);
+                default -> sendViaMock(phoneNumber, message); // fallback
+            }
+            authMetrics.messageSent(observation, null);
+        } catch (RuntimeException e) {
+            authMetrics.messageSent(observation, e);
+            log.error("Failed to send OTP SMS to: {}", maskPhone(phoneNumber), e);
+            throw e;
         }
     }
 
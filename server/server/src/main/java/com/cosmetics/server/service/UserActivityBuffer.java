@@ -0,0 +1,125 @@
+package com.cosmetics.server.service;
+
+import com.cosmetics.server.pattern.RedisKetPattern;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind buffer for users.last_login.
+ * <p>
+ * Online/offline presence lives only in Redis (see {@link PresenceService}) and is never flushed here.
+ * <p>
+ * Changes are coalesced in a Redis hash (one field per user, last write wins) and flushed on a
+ * fixed delay as one {@code UPDATE ... FROM (VALUES ...)} per batch. A flush first renames the
+ * buffer to a FLUSHING key of its own and only deletes it after the database accepted every batch,
+ * so a crash mid-flush is replayed by a later run (see {@link WriteBehindSnapshots}). Updates are
+ * idempotent, so a replay is harmless.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class UserActivityBuffer {
+
+    @Value("${app.users.write-behind.batch-size:500}")
+    private int batchSize;
+
+    // longer than any flush takes, or a slow flush gets replayed by another instance
+    @Value("${app.users.write-behind.orphan-after:PT5M}")
+    private Duration orphanAfter;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    public void recordLogin(Long userId, LocalDateTime loginAt) {
+        hash().put(RedisKetPattern.USER_LAST_LOGIN_BUFFER, userId.toString(), loginAt.toString());
+    }
+
+    @Scheduled(fixedDelayString = "${app.users.write-behind.flush-interval-ms:5000}")
+    public void flush() {
+        try {
+            flushBuffer(RedisKetPattern.USER_LAST_LOGIN_BUFFER, this::applyLastLogins);
+        } catch (Exception e) {
+            // buffer stays in Redis and is retried on the next tick
+            log.warn("User activity flush failed, will retry", e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void flushBuffer(String bufferKey, Consumer<List<Map.Entry<String, String>>> writer) {
+        WriteBehindSnapshots snapshots = new WriteBehindSnapshots(stringRedisTemplate, bufferKey, orphanAfter);
+        for (String snapshotKey : snapshots.claim()) {
+            int flushed = 0;
+            List<Map.Entry<String, String>> batch = new ArrayList<>(batchSize);
+            ScanOptions options = ScanOptions.scanOptions().count(batchSize).build();
+
+            try (Cursor<Map.Entry<String, String>> cursor = hash().scan(snapshotKey, options)) {
+                while (cursor.hasNext()) {
+                    batch.add(cursor.next());
+                    if (batch.size() >= batchSize) {
+                        writer.accept(batch);
+                        flushed += batch.size();
+                        batch.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                writer.accept(batch);
+                flushed += batch.size();
+            }
+
+            snapshots.release(snapshotKey);
+            log.debug("Flushed {} buffered entries from {}", flushed, snapshotKey);
+        }
+    }
+
+    private void applyLastLogins(List<Map.Entry<String, String>> batch) {
+        String sql = "UPDATE users AS u SET last_login = v.last_login FROM (VALUES "
+                + valuesPlaceholders(batch.size(), "(?::bigint, ?::timestamp)")
+                + ") AS v(id, last_login) "
+                + "WHERE u.id = v.id AND (u.last_login IS NULL OR u.last_login < v.last_login)";
+
+        Object[] args = new Object[batch.size() * 2];
+        for (int i = 0; i < batch.size(); i++) {
+            Map.Entry<String, String> entry = batch.get(i);
+            args[i * 2] = Long.parseLong(entry.getKey());
+            args[i * 2 + 1] = Timestamp.valueOf(LocalDateTime.parse(entry.getValue()));
+        }
+        jdbcTemplate.update(sql, args);
+    }
+
+    private String valuesPlaceholders(int rows, String row) {
+        StringBuilder sb = new StringBuilder(rows * (row.length() + 2));
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(row);
+        }
+        return sb.toString();
+    }
+
+    private HashOperations<String, String, String> hash() {
+        return stringRedisTemplate.opsForHash();
+    }
+}
@@ -0,0 +1,81 @@
+package com.cosmetics.server.service;
+
+import com.cosmetics.server.entity.ENUM.STATUS;
+import com.cosmetics.server.entity.auth.Users;
+import com.cosmetics.server.repository.UsersRepository;
+import com.cosmetics.server.validation.EmailOrPhoneValidator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * User lookups routed to a single unique index instead of OR-ing columns together.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class UserLookupService {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final UsersRepository usersRepository;
+
+    /**
+     * Login identifier (email or phone) is normalized to its stored form and probes
+     * uk_users_email or uk_users_phone, never both.
+     */
+    public Optional<Users> findByLoginIdentifier(String identifier) {
+        if (identifier == null || identifier.isBlank()) {
+            return Optional.empty();
+        }
+
+        String normalized = EmailOrPhoneValidator.normalize(identifier);
+        if (normalized.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return EmailOrPhoneValidator.isEmail(normalized)
+                ? usersRepository.findByEmail(normalized)
+                : usersRepository.findByPhoneNumber(normalized);
+    }
+
+    public Optional<Users> findByUsername(String username) {
+        return usersRepository.findByUsername(username);
+    }
+
+    public Page<Users> findByStatus(STATUS status, int page, int size) {
+        return usersRepository.findAllByStatus(status,
+                PageRequest.of(page, clampSize(size), Sort.by(Sort.Direction.DESC, "createdAt")));
+    }
+
+    public Slice<Users> findRecentUsers(LocalDateTime fromDate, int page, int size) {
+        return usersRepository.findRecentUsers(fromDate,
+                PageRequest.of(page, clampSize(size), Sort.by(Sort.Direction.DESC, "createdAt")));
+    }
+
+    /**
+     * Visit every user created since {@code fromDate} without loading them all at once.
+     */
+    public void forEachRecentUser(LocalDateTime fromDate, Consumer<Users> consumer) {
+        try (Stream<Users> users = usersRepository.streamRecentUsers(fromDate)) {
+            users.forEach(consumer);
+        }
+    }
+
+    public long countRecentUsers(LocalDateTime fromDate) {
+        return usersRepository.countByCreatedAtGreaterThanEqual(fromDate);
+    }
+
+    private int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+}
@@ -0,0 +1,106 @@
+package com.cosmetics.server.service;
+
+import com.cosmetics.server.pattern.RedisKetPattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Snapshots of a write-behind buffer hash, one per flush.
+ * <p>
+ * A flush renames the buffer to its own {@code {buffer}:FLUSHING:{claimedAt}:{flushId}} key and deletes only
+ * that key once the database accepted it, so flushes running on several instances never replay or delete each
+ * other's snapshot. A snapshot left behind by a crashed flush is re-claimed, by renaming it to a new key of the
+ * claiming flush, once it is older than {@code orphanAfter}; the rename succeeds for exactly one instance.
+ */
+@Slf4j
+class WriteBehindSnapshots {
+
+    private final StringRedisTemplate redisTemplate;
+    private final String bufferKey;
+    private final Duration orphanAfter;
+
+    WriteBehindSnapshots(StringRedisTemplate redisTemplate, String bufferKey, Duration orphanAfter) {
+        this.redisTemplate = redisTemplate;
+        this.bufferKey = bufferKey;
+        this.orphanAfter = orphanAfter;
+    }
+
+    /**
+     * Snapshot keys now owned by the caller, oldest first: orphaned snapshots, then the current buffer.
+     */
+    List<String> claim() {
+        long now = System.currentTimeMillis();
+        List<String> orphans = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(RedisKetPattern.buildWriteBehindFlushingMatch(bufferKey))
+                .count(100)
+                .build();
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            keys.forEachRemaining(key -> {
+                if (claimedAt(key) < now - orphanAfter.toMillis()) {
+                    orphans.add(key);
+                }
+            });
+        }
+        orphans.sort(Comparator.comparingLong(WriteBehindSnapshots::claimedAt));
+
+        List<String> claimed = new ArrayList<>(orphans.size() + 1);
+        for (String orphan : orphans) {
+            String key = newKey(now);
+            if (rename(orphan, key)) {
+                log.info("Replaying orphaned write-behind snapshot {}", orphan);
+                claimed.add(key);
+            }
+        }
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(bufferKey))) {
+            String key = newKey(now);
+            if (rename(bufferKey, key)) {
+                claimed.add(key);
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * Drops a snapshot after every entry in it reached the database.
+     */
+    void release(String snapshotKey) {
+        redisTemplate.delete(snapshotKey);
+    }
+
+    private String newKey(long now) {
+        return RedisKetPattern.buildWriteBehindSnapshotKey(bufferKey, now, UUID.randomUUID().toString());
+    }
+
+    // RENAMENX fails when the source is gone: another instance claimed it first
+    private boolean rename(String from, String to) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.renameIfAbsent(from, to));
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+
+    // keys without a timestamp (older releases) count as orphaned right away
+    private static long claimedAt(String snapshotKey) {
+        String[] parts = snapshotKey.split(":FLUSHING:", 2);
+        if (parts.length < 2) {
+            return 0L;
+        }
+        int end = parts[1].indexOf(':');
+        try {
+            return Long.parseLong(end < 0 ? parts[1] : parts[1].substring(0, end));
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
@@ -3,52 +3,33 @@ package com.cosmetics.server.validation;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 
-import java.util.regex.Pattern;
-
+/**
+ * Accepts a well-formed email or a Vietnamese mobile number (0xxx, 84xxx or +84xxx).
+ * Parsing and normalization live in {@link Identifier}.
+ */
 public class EmailOrPhoneValidator implements ConstraintValidator<EmailOrPhone, String> {
 
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
-            "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$"
-    );
-
-    private static final Pattern PHONE_PATTERN = Pattern.compile(
-            "^(\\+84|84|0)(3[2-9]|5[689]|7[06-9]|8[1-689]|9[0-46-9])[0-9]{7}$|"
-//                   + "^(\\+84|84|0)(2[0-9])[0-9]{8}$|" + // Vietnamese landline
-//                    "^\\+[1-9]\\d{1,14}$" // International E.164 format
-    );
-
     @Override
     public void initialize(EmailOrPhone constraintAnnotation) {
     }
 
     @Override
     public boolean isValid(String s, ConstraintValidatorContext constraintValidatorContext) {
-        if(s == null || s.trim().isEmpty()){
-            return false;
-        }
-
-        String trimmed = s.trim();
-
-        if(trimmed.contains("@")){
-            return EMAIL_PATTERN.matcher(trimmed).matches();
-        }
-
-        String normalized = normalizePhone(trimmed);
-        return PHONE_PATTERN.matcher(normalized).matches();
+        return Identifier.parse(s).isValid();
     }
 
-    private String normalizePhone(String phone) {
-        if (phone == null) return "";
-
-        String cleaned = phone.replaceAll("[^+\\d]", "");
+    public static boolean isEmail(String value) {
+        return value != null && value.indexOf('@') >= 0;
+    }
 
-        // Convert Vietnamese local format to international
-        if (cleaned.startsWith("0")) {
-            cleaned = "+84" + cleaned.substring(1);
-        } else if (cleaned.startsWith("84") && !cleaned.startsWith("+84")) {
-            cleaned = "+" + cleaned;
-        }
+    /**
+     * Canonical stored form of an identifier: lower-cased email or +84 phone number.
+     */
+    public static String normalize(String value) {
+        return Identifier.parse(value).getNormalized();
+    }
 
-        return cleaned;
+    public static String normalizePhone(String phone) {
+        return Identifier.normalizePhone(phone);
     }
 }
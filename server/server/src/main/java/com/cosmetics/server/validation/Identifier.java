@@ -0,0 +1,255 @@
+package com.cosmetics.server.validation;
+
+import java.util.Locale;
+
+/**
+ * A login identifier (email or phone number), classified, normalized and validated in one pass over the input.
+ * <p>
+ * Hand-written scanning instead of regex: no Pattern/Matcher, and the normalized form is the only string built.
+ * Instances are immutable, so one parse can be passed along the auth flow instead of re-normalizing.
+ * Normalized forms: emails are trimmed and lower-cased, phones keep digits and '+' and Vietnamese local
+ * numbers (0xxx / 84xxx) become +84xxx.
+ */
+public final class Identifier {
+
+    public enum Type {
+        EMAIL,
+        PHONE
+    }
+
+    private static final Identifier EMPTY = new Identifier(Type.PHONE, "", false);
+
+    private final Type type;
+    private final String normalized;
+    private final boolean valid;
+    private String masked;
+
+    private Identifier(Type type, String normalized, boolean valid) {
+        this.type = type;
+        this.normalized = normalized;
+        this.valid = valid;
+    }
+
+    public static Identifier parse(CharSequence input) {
+        if (input == null) {
+            return EMPTY;
+        }
+
+        int start = 0;
+        int end = input.length();
+        while (start < end && input.charAt(start) <= ' ') start++;
+        while (end > start && input.charAt(end - 1) <= ' ') end--;
+        if (start == end) {
+            return EMPTY;
+        }
+
+        for (int i = start; i < end; i++) {
+            if (input.charAt(i) == '@') {
+                return parseEmail(input, start, end);
+            }
+        }
+        String phone = normalizePhone(input, start, end);
+        return new Identifier(Type.PHONE, phone, isValidVietnamesePhone(phone));
+    }
+
+    /**
+     * Phone normalization only, for callers that already know the input is not an email.
+     */
+    public static String normalizePhone(CharSequence input) {
+        return input == null ? "" : normalizePhone(input, 0, input.length());
+    }
+
+    /**
+     * E.164 shape: optional '+', a non-zero digit, then 1 to 14 digits.
+     */
+    public static boolean isE164(CharSequence value) {
+        if (value == null) {
+            return false;
+        }
+        int i = value.length() > 0 && value.charAt(0) == '+' ? 1 : 0;
+        int digits = value.length() - i;
+        if (digits < 2 || digits > 15 || value.charAt(i) < '1' || value.charAt(i) > '9') {
+            return false;
+        }
+        for (; i < value.length(); i++) {
+            if (!isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public boolean isEmail() {
+        return type == Type.EMAIL;
+    }
+
+    public boolean isPhone() {
+        return type == Type.PHONE;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public boolean isEmpty() {
+        return normalized.isEmpty();
+    }
+
+    public String getNormalized() {
+        return normalized;
+    }
+
+    /**
+     * Log-safe form: first three characters of the email local part, or the last four phone digits.
+     */
+    public String getMasked() {
+        String result = masked;
+        if (result == null) {
+            result = isEmail() ? maskEmail() : maskPhone();
+            masked = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Identifier other && type == other.type && normalized.equals(other.normalized);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + normalized.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getMasked();
+    }
+
+    private static Identifier parseEmail(CharSequence input, int start, int end) {
+        char[] out = new char[end - start];
+        int at = -1;
+        int lastDot = -1;
+        boolean valid = true;
+        boolean ascii = true;
+
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            int pos = i - start;
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            } else if (c > 127) {
+                ascii = false;
+            }
+            out[pos] = c;
+
+            if (c == '@') {
+                valid &= at < 0 && pos > 0;
+                at = pos;
+            } else if (at < 0) {
+                valid &= isLocalPartChar(c);
+            } else {
+                valid &= isDomainChar(c);
+                if (c == '.') {
+                    lastDot = pos;
+                }
+            }
+        }
+
+        // domain needs a dot, and the top-level label at least two letters
+        valid &= at >= 0 && lastDot > at + 1 && out.length - lastDot - 1 >= 2;
+        for (int i = lastDot + 1; valid && i < out.length; i++) {
+            valid = out[i] >= 'a' && out[i] <= 'z';
+        }
+        // non-ASCII never validates; String.toLowerCase keeps the normalized form identical to the old one,
+        // including characters whose lower case is longer (e.g. U+0130)
+        String normalized = ascii ? new String(out) : input.subSequence(start, end).toString().toLowerCase(Locale.ROOT);
+        return new Identifier(Type.EMAIL, normalized, valid);
+    }
+
+    private static String normalizePhone(CharSequence input, int start, int end) {
+        // room for a "+84" prefix replacing a single leading '0'
+        char[] out = new char[end - start + 2];
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (isDigit(c) || c == '+') {
+                out[length++] = c;
+            }
+        }
+
+        if (length > 0 && out[0] == '0') {
+            System.arraycopy(out, 1, out, 3, length - 1);
+            out[0] = '+';
+            out[1] = '8';
+            out[2] = '4';
+            length += 2;
+        } else if (length > 1 && out[0] == '8' && out[1] == '4') {
+            System.arraycopy(out, 0, out, 1, length);
+            out[0] = '+';
+            length += 1;
+        }
+        return new String(out, 0, length);
+    }
+
+    /**
+     * +84 followed by a mobile carrier prefix (3[2-9], 5[689], 7[06-9], 8[1-689], 9[0-46-9]) and seven digits.
+     */
+    private static boolean isValidVietnamesePhone(String phone) {
+        if (phone.length() != 12 || phone.charAt(0) != '+' || phone.charAt(1) != '8' || phone.charAt(2) != '4') {
+            return false;
+        }
+        for (int i = 3; i < 12; i++) {
+            if (!isDigit(phone.charAt(i))) {
+                return false;
+            }
+        }
+        char second = phone.charAt(4);
+        return switch (phone.charAt(3)) {
+            case '3' -> second >= '2';
+            case '5' -> second == '6' || second == '8' || second == '9';
+            case '7' -> second == '0' || second >= '6';
+            case '8' -> second != '0' && second != '7';
+            case '9' -> second != '5';
+            default -> false;
+        };
+    }
+
+    private String maskEmail() {
+        int at = normalized.indexOf('@');
+        int visible = Math.min(3, at);
+        return new StringBuilder(visible + 3 + normalized.length() - at)
+                .append(normalized, 0, visible)
+                .append("***")
+                .append(normalized, at, normalized.length())
+                .toString();
+    }
+
+    private String maskPhone() {
+        int length = normalized.length();
+        if (length <= 4) {
+            return "****";
+        }
+        StringBuilder sb = new StringBuilder(8);
+        if (normalized.charAt(0) == '+') {
+            sb.append('+');
+        }
+        return sb.append("***").append(normalized, length - 4, length).toString();
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLocalPartChar(char c) {
+        return (c >= 'a' && c <= 'z') || isDigit(c) || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+
+    private static boolean isDomainChar(char c) {
+        return (c >= 'a' && c <= 'z') || isDigit(c) || c == '.' || c == '-';
+    }
+}
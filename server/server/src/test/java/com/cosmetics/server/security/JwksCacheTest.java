@@ -0,0 +1,213 @@
+package com.cosmetics.server.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class JwksCacheTest {
+
+    private static final String KID = "key-1";
+    private static final Duration REFRESH_AHEAD = Duration.ofMinutes(5);
+    private static final Duration MAX_STALE = Duration.ofHours(1);
+    private static final Duration UNKNOWN_KID_BACKOFF = Duration.ofSeconds(30);
+
+    @Mock
+    private HttpClient httpClient;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private String jwksJson;
+    private JwksCache cache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        jwksJson = jwks((RSAPublicKey) generator.generateKeyPair().getPublic());
+
+        cache = new JwksCache("test", URI.create("http://jwks.test/certs"), Duration.ofHours(1), REFRESH_AHEAD,
+                MAX_STALE, UNKNOWN_KID_BACKOFF, httpClient, new ObjectMapper(), clock);
+    }
+
+    @Test
+    void refreshesAheadOfExpiryWithoutBlockingVerification() {
+        respond(ok(3600));
+        PublicKey key = cache.getKey(KID);
+        assertThat(key).isNotNull();
+
+        clock.advance(Duration.ofMinutes(50));
+        cache.refreshIfStale();
+        verify(httpClient, times(1)).sendAsync(any(), any());
+
+        // inside the refresh-ahead window: a background fetch starts, lookups keep using the cached keys
+        CompletableFuture<HttpResponse<String>> pending = new CompletableFuture<>();
+        respond(pending);
+        clock.advance(Duration.ofMinutes(6));
+        cache.refreshIfStale();
+
+        verify(httpClient, times(2)).sendAsync(any(), any());
+        assertThat(cache.getKey(KID)).isSameAs(key);
+    }
+
+    @Test
+    void concurrentFetchesShareOneRequest() throws Exception {
+        CompletableFuture<HttpResponse<String>> pending = new CompletableFuture<>();
+        respond(pending);
+
+        List<CompletableFuture<PublicKey>> lookups = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                lookups.add(CompletableFuture.supplyAsync(() -> cache.getKey(KID), executor));
+            }
+            cache.refreshIfStale();
+            cache.refreshIfStale();
+            assertThat(lookups).noneMatch(CompletableFuture::isDone);
+
+            pending.complete(response(200, 3600));
+            for (CompletableFuture<PublicKey> lookup : lookups) {
+                assertThat(lookup.get()).isNotNull();
+            }
+        }
+
+        verify(httpClient, times(1)).sendAsync(any(), any());
+    }
+
+    @Test
+    void servesStaleKeysDuringAnOutageUntilMaxStale() {
+        respond(ok(60));
+        PublicKey key = cache.getKey(KID);
+
+        respond(CompletableFuture.failedFuture(new IOException("connection refused")));
+        clock.advance(Duration.ofMinutes(30));
+        cache.refreshIfStale();
+
+        assertThat(cache.getKey(KID)).isSameAs(key);
+
+        clock.advance(MAX_STALE);
+        assertThatThrownBy(() -> cache.getKey(KID)).isInstanceOf(CompletionException.class);
+    }
+
+    @Test
+    void unknownKidBacksOffFromTheLastAttemptEvenWhenItFailed() {
+        respond(ok(3600));
+        cache.getKey(KID);
+
+        respond(CompletableFuture.failedFuture(new IOException("connection refused")));
+        clock.advance(Duration.ofSeconds(31));
+        assertThatThrownBy(() -> cache.getKey("rotated")).isInstanceOf(CompletionException.class);
+        verify(httpClient, times(2)).sendAsync(any(), any());
+
+        // the failed attempt restarts the backoff, so these do not refetch
+        clock.advance(Duration.ofSeconds(10));
+        assertThat(cache.getKey("rotated")).isNull();
+        assertThat(cache.getKey("made-up")).isNull();
+        verify(httpClient, times(2)).sendAsync(any(), any());
+
+        clock.advance(Duration.ofSeconds(21));
+        assertThatThrownBy(() -> cache.getKey("rotated")).isInstanceOf(CompletionException.class);
+        verify(httpClient, times(3)).sendAsync(any(), any());
+    }
+
+    @Test
+    void knownKidNeverRefetchesWhileFresh() {
+        respond(ok(3600));
+        cache.getKey(KID);
+        clock.advance(Duration.ofMinutes(10));
+        cache.getKey(KID);
+
+        verify(httpClient, times(1)).sendAsync(any(), any());
+    }
+
+    private void respond(CompletableFuture<HttpResponse<String>> future) {
+        when(httpClient.<String>sendAsync(any(HttpRequest.class), any())).thenReturn(future);
+    }
+
+    private CompletableFuture<HttpResponse<String>> ok(long maxAgeSeconds) {
+        return CompletableFuture.completedFuture(response(200, maxAgeSeconds));
+    }
+
+    @SuppressWarnings("unchecked")
+    private HttpResponse<String> response(int status, long maxAgeSeconds) {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        when(response.body()).thenReturn(jwksJson);
+        when(response.headers()).thenReturn(HttpHeaders.of(
+                Map.of("Cache-Control", List.of("public, max-age=" + maxAgeSeconds)), (name, value) -> true));
+        return response;
+    }
+
+    private static String jwks(RSAPublicKey key) {
+        return "{\"keys\":[{\"kty\":\"RSA\",\"kid\":\"" + KID + "\",\"n\":\"" + base64Url(key.getModulus())
+                + "\",\"e\":\"" + base64Url(key.getPublicExponent()) + "\"}]}";
+    }
+
+    private static String base64Url(BigInteger value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.toByteArray());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.cosmetics.server.security;
+
+import com.cosmetics.server.exception.InvalidIdTokenException;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Against a local JWKS endpoint that serves keys already expired (max-age=0), so every check of the
+ * verifier goes through the stale-key and refresh paths of {@link JwksCache}.
+ */
+class ProviderTokenVerifierTest {
+
+    private static final String CLIENT_ID = "test-client.apps.googleusercontent.com";
+    private static final String KID = "test-key";
+
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final AtomicBoolean down = new AtomicBoolean();
+    private HttpServer server;
+    private KeyPair keyPair;
+    private ProviderTokenVerifier verifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/certs", exchange -> {
+            fetches.incrementAndGet();
+            if (down.get()) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = jwks((RSAPublicKey) keyPair.getPublic()).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Cache-Control", "public, max-age=0");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        URI jwksUri = URI.create("http://localhost:" + server.getAddress().getPort() + "/certs");
+        verifier = new ProviderTokenVerifier(CLIENT_ID, jwksUri, Duration.ofHours(1), Duration.ofMinutes(5),
+                Duration.ofHours(1), Duration.ofMinutes(1), 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void verifiesTokenSignedWithProviderKey() {
+        VerifiedIdToken token = verifier.verifyGoogleIdToken(idToken(KID, CLIENT_ID, "sub-1"));
+
+        assertThat(token.getSubject()).isEqualTo("sub-1");
+        assertThat(token.getEmail()).isEqualTo("sub-1@example.com");
+        assertThat(token.isEmailVerified()).isTrue();
+    }
+
+    @Test
+    void repeatedTokenSkipsVerification() {
+        String idToken = idToken(KID, CLIENT_ID, "sub-1");
+        VerifiedIdToken first = verifier.verifyGoogleIdToken(idToken);
+        down.set(true);
+
+        assertThat(verifier.verifyGoogleIdToken(idToken)).isSameAs(first);
+    }
+
+    @Test
+    void keepsVerifyingWithStaleKeysWhileProviderIsDown() throws Exception {
+        verifier.verifyGoogleIdToken(idToken(KID, CLIENT_ID, "sub-1"));
+        down.set(true);
+
+        verifier.refresh();
+        awaitFetches(2);
+
+        assertThat(verifier.verifyGoogleIdToken(idToken(KID, CLIENT_ID, "sub-2")).getSubject()).isEqualTo("sub-2");
+    }
+
+    @Test
+    void unknownKidIsRejectedAndBackedOff() {
+        verifier.verifyGoogleIdToken(idToken(KID, CLIENT_ID, "sub-1"));
+        int before = fetches.get();
+
+        for (int i = 0; i < 5; i++) {
+            String forged = idToken("forged-" + i, CLIENT_ID, "sub-1");
+            assertThatThrownBy(() -> verifier.verifyGoogleIdToken(forged)).isInstanceOf(InvalidIdTokenException.class);
+        }
+        // the first lookup fetched less than the backoff ago, so the unknown kids never reach the endpoint
+        assertThat(fetches.get()).isEqualTo(before);
+    }
+
+    @Test
+    void rejectsOtherAudience() {
+        String idToken = idToken(KID, "someone-else.apps.googleusercontent.com", "sub-1");
+
+        assertThatThrownBy(() -> verifier.verifyGoogleIdToken(idToken)).isInstanceOf(InvalidIdTokenException.class);
+    }
+
+    private void awaitFetches(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (fetches.get() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(fetches.get()).isGreaterThanOrEqualTo(count);
+    }
+
+    private String idToken(String kid, String audience, String subject) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .setHeaderParam("kid", kid)
+                .setIssuer("https://accounts.google.com")
+                .setAudience(audience)
+                .setSubject(subject)
+                .claim("email", subject + "@example.com")
+                .claim("email_verified", true)
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(Duration.ofMinutes(5))))
+                .signWith(keyPair.getPrivate(), SignatureAlgorithm.RS256)
+                .compact();
+    }
+
+    private static String jwks(RSAPublicKey key) {
+        return "{\"keys\":[{\"kty\":\"RSA\",\"kid\":\"" + KID + "\",\"n\":\"" + base64Url(key.getModulus())
+                + "\",\"e\":\"" + base64Url(key.getPublicExponent()) + "\"}]}";
+    }
+
+    private static String base64Url(BigInteger value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.toByteArray());
+    }
+}
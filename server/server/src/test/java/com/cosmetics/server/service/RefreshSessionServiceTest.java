@@ -0,0 +1,300 @@
+package com.cosmetics.server.service;
+
+import com.cosmetics.server.audit.AuditEventType;
+import com.cosmetics.server.audit.AuditLogger;
+import com.cosmetics.server.entity.auth.Users;
+import com.cosmetics.server.pattern.RedisKetPattern;
+import com.cosmetics.server.repository.UserTokenRepository;
+import com.cosmetics.server.resilience.RedisGuard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RefreshSessionServiceTest {
+
+    private static final String TOKEN = "refresh-token";
+    private static final String TOKEN_ID = "token-1";
+    private static final Long USER_ID = 42L;
+    private static final String SESSIONS_KEY = RedisKetPattern.buildRefreshSessionsKey(USER_ID);
+    private static final String BUFFER = RedisKetPattern.REFRESH_SESSION_SYNC_BUFFER;
+    private static final int MAX_SESSIONS = 5;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+    @Mock
+    private RedisGuard redisGuard;
+    @Mock
+    private JwtConfig jwtConfig;
+    @Mock
+    private UserTokenRepository tokenRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private AuditLogger auditLogger;
+
+    private RefreshSessionService service;
+    private boolean redisDown;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(jwtConfig.extractUserId(TOKEN)).thenReturn(USER_ID);
+        when(jwtConfig.extractTokenId(TOKEN)).thenReturn(TOKEN_ID);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        // like RedisGuard: an open breaker or a failing Redis call goes to the fallback
+        when(redisGuard.call(any(), any())).thenAnswer(invocation -> {
+            if (!redisDown) {
+                try {
+                    return invocation.<Supplier<?>>getArgument(0).get();
+                } catch (DataAccessException e) {
+                    // fall through
+                }
+            }
+            return invocation.<Supplier<?>>getArgument(1).get();
+        });
+        when(redisGuard.isClosed()).thenAnswer(invocation -> !redisDown);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        service = new RefreshSessionService(redisTemplate, redisGuard, jwtConfig, tokenRepository, jdbcTemplate,
+                transactionTemplate, auditLogger, MAX_SESSIONS, 500, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void revokeDuringOutageIsReplayedIntoTheIndexOnRecovery() {
+        redisDown = true;
+        service.revoke(TOKEN);
+
+        verify(tokenRepository).revokeByTokenId(TOKEN_ID);
+        verify(zSetOperations, never()).remove(anyString(), any());
+
+        redisDown = false;
+        service.reconcile();
+
+        verify(zSetOperations).remove(SESSIONS_KEY, TOKEN_ID);
+    }
+
+    @Test
+    void sessionRevokedDuringOutageIsNotActiveAfterRecovery() {
+        // still in the index, as it was before the outage, until the revoke is replayed
+        AtomicBoolean removed = new AtomicBoolean();
+        when(zSetOperations.score(SESSIONS_KEY, TOKEN_ID))
+                .thenAnswer(invocation -> removed.get() ? null : (double) (System.currentTimeMillis() + 60_000));
+        when(zSetOperations.remove(SESSIONS_KEY, TOKEN_ID)).thenAnswer(invocation -> {
+            removed.set(true);
+            return 1L;
+        });
+
+        redisDown = true;
+        service.revoke(TOKEN);
+        redisDown = false;
+
+        assertThat(service.isActive(TOKEN)).isFalse();
+        InOrder order = inOrder(zSetOperations);
+        order.verify(zSetOperations).remove(SESSIONS_KEY, TOKEN_ID);
+        order.verify(zSetOperations).score(SESSIONS_KEY, TOKEN_ID);
+    }
+
+    @Test
+    void revokeAllDuringOutageDropsTheSessionSetOnRecovery() {
+        redisDown = true;
+        service.revokeAll(USER_ID);
+
+        verify(tokenRepository).revokeAllUserTokens(eq(USER_ID), any());
+        verify(redisTemplate, never()).delete(anyString());
+
+        redisDown = false;
+        service.reconcile();
+        service.reconcile();
+
+        // replayed once, then dequeued
+        verify(redisTemplate).delete(SESSIONS_KEY);
+    }
+
+    @Test
+    void failedReplayStaysQueued() {
+        redisDown = true;
+        service.revoke(TOKEN);
+
+        when(zSetOperations.remove(SESSIONS_KEY, TOKEN_ID))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(1L);
+        redisDown = false;
+        service.reconcile();
+        service.reconcile();
+
+        verify(zSetOperations, times(2)).remove(SESSIONS_KEY, TOKEN_ID);
+    }
+
+    @Test
+    void openEvictsOldestSessionsBeyondTheCapAndBuffersTheirRevokes() {
+        Users user = Users.builder().id(USER_ID).build();
+        when(jwtConfig.generateRefreshToken(eq(user), anyString())).thenReturn(TOKEN);
+        when(jwtConfig.extractExpiration(TOKEN)).thenReturn(new Date(System.currentTimeMillis() + 60_000));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any(), any()))
+                .thenReturn(List.of("oldest-1", "oldest-2"));
+
+        assertThat(service.open(user, "10.0.0.1")).isEqualTo(TOKEN);
+
+        // the cap goes to the script, which trims, adds and evicts atomically
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(SESSIONS_KEY)), anyString(), anyString(),
+                anyString(), eq(Integer.toString(MAX_SESSIONS)));
+        verify(hashOperations).put(eq(BUFFER), startsWith("o:"), contains("|10.0.0.1"));
+        verify(hashOperations).put(BUFFER, "r:oldest-1", "");
+        verify(hashOperations).put(BUFFER, "r:oldest-2", "");
+        verify(auditLogger).record(AuditEventType.TOKEN_REVOKED, String.valueOf(USER_ID), "success", "session-limit:2");
+    }
+
+    @Test
+    void openWithinTheCapRevokesNothing() {
+        Users user = Users.builder().id(USER_ID).build();
+        when(jwtConfig.generateRefreshToken(eq(user), anyString())).thenReturn(TOKEN);
+        when(jwtConfig.extractExpiration(TOKEN)).thenReturn(new Date(System.currentTimeMillis() + 60_000));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any(), any())).thenReturn(List.of());
+
+        service.open(user, null);
+
+        verify(hashOperations, never()).put(eq(BUFFER), startsWith("r:"), anyString());
+        verify(auditLogger, never()).record(any(), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void flushInsertsOpensBeforeApplyingRevokes() {
+        long now = System.currentTimeMillis();
+        // a session opened and revoked within one interval; the scan returns the revoke first
+        AtomicReference<String> snapshotKey = bufferSnapshot(List.of(
+                Map.entry("r:" + TOKEN_ID, ""),
+                Map.entry("u:" + USER_ID, Long.toString(now)),
+                Map.entry("o:" + TOKEN_ID, USER_ID + "|" + now + "|" + (now + 60_000) + "|hash|")));
+
+        service.flush();
+
+        InOrder order = inOrder(jdbcTemplate, tokenRepository, redisTemplate);
+        order.verify(jdbcTemplate).batchUpdate(anyString(), anyList(), eq(1), any());
+        order.verify(tokenRepository).revokeByTokenIds(List.of(TOKEN_ID));
+        order.verify(tokenRepository).revokeAllUserTokens(eq(USER_ID), any());
+        order.verify(redisTemplate).delete(snapshotKey.get());
+    }
+
+    @Test
+    void revokeAllOnlyRevokesSessionsIssuedBeforeIt() {
+        service.revokeAll(USER_ID);
+        ArgumentCaptor<String> revokedAt = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).delete(SESSIONS_KEY);
+        verify(hashOperations).put(eq(BUFFER), eq("u:" + USER_ID), revokedAt.capture());
+
+        // a login right after "log out everywhere", synced in the same flush
+        long issuedBefore = Long.parseLong(revokedAt.getValue());
+        long openedAt = issuedBefore + 1;
+        bufferSnapshot(List.of(
+                Map.entry("u:" + USER_ID, revokedAt.getValue()),
+                Map.entry("o:" + TOKEN_ID, USER_ID + "|" + openedAt + "|" + (openedAt + 60_000) + "|hash|")));
+
+        service.flush();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(tokenRepository).revokeAllUserTokens(eq(USER_ID), cutoff.capture());
+        assertThat(cutoff.getValue())
+                .isEqualTo(LocalDateTime.ofInstant(Instant.ofEpochMilli(issuedBefore), ZoneId.systemDefault()))
+                .isBefore(LocalDateTime.ofInstant(Instant.ofEpochMilli(openedAt), ZoneId.systemDefault()));
+    }
+
+    @Test
+    void flushLeavesSnapshotsItDidNotClaim() {
+        when(redisTemplate.scan(any(ScanOptions.class))).thenAnswer(invocation -> cursor(List.of(
+                BUFFER + ":FLUSHING:" + System.currentTimeMillis() + ":other-instance")));
+        when(redisTemplate.hasKey(BUFFER)).thenReturn(false);
+
+        service.flush();
+
+        verify(redisTemplate, never()).renameIfAbsent(anyString(), anyString());
+        verify(redisTemplate, never()).delete(anyString());
+    }
+
+    /**
+     * Buffer holding the given entries, claimed by the next flush; the reference receives the snapshot key.
+     */
+    private AtomicReference<String> bufferSnapshot(List<Map.Entry<String, String>> entries) {
+        AtomicReference<String> snapshotKey = new AtomicReference<>();
+        when(redisTemplate.scan(any(ScanOptions.class))).thenAnswer(invocation -> cursor(List.of()));
+        when(redisTemplate.hasKey(BUFFER)).thenReturn(true);
+        when(redisTemplate.renameIfAbsent(eq(BUFFER), anyString())).thenAnswer(invocation -> {
+            snapshotKey.set(invocation.getArgument(1));
+            return true;
+        });
+        when(hashOperations.scan(anyString(), any(ScanOptions.class)))
+                .thenAnswer(invocation -> cursor(entries));
+        return snapshotKey;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Cursor<T> cursor(List<? extends T> items) {
+        Iterator<? extends T> iterator = items.iterator();
+        Cursor<T> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> iterator.next());
+        doAnswer(invocation -> {
+            iterator.forEachRemaining(invocation.<Consumer<T>>getArgument(0));
+            return null;
+        }).when(cursor).forEachRemaining(any());
+        return cursor;
+    }
+}
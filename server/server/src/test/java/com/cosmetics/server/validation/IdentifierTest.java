@@ -0,0 +1,145 @@
+package com.cosmetics.server.validation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Identifier against the regex implementation it replaced (EmailOrPhoneValidator before the single-pass parser):
+ * same email/phone split, same normalized form, same verdict.
+ */
+class IdentifierTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            // emails: case, dots and tags in the local part, subdomains, malformed shapes
+            "user@example.com",
+            "  User.Name@Example.COM  ",
+            "first.last+tag@mail.example.co.uk",
+            "a_b%c-d@sub-domain.example.org",
+            ".leading.dot@example.com",
+            "trailing.dot.@example.com",
+            "double..dot@example.com",
+            "user@example",
+            "user@example.c",
+            "user@example.c0m",
+            "user@.com",
+            "user@-.com",
+            "user@exa_mple.com",
+            "@example.com",
+            "user@@example.com",
+            "us er@example.com",
+            "user@",
+            // IDN and non-ASCII: never valid, normalized like String.toLowerCase
+            "người.dùng@ví-dụ.vn",
+            "user@bücher.de",
+            "ÜSER@EXAMPLE.COM",
+            "İSTANBUL@example.com",
+            "user@xn--bcher-kva.de",
+            // phones: 0 / 84 / +84 prefixes, separators, carrier prefixes
+            "0912345678",
+            "84912345678",
+            "+84912345678",
+            "+84 91 234 5678",
+            "(091) 234-5678",
+            "0321234567",
+            "0311234567",
+            "0561234567",
+            "0551234567",
+            "0701234567",
+            "0711234567",
+            "0811234567",
+            "0871234567",
+            "0951234567",
+            "091234567",
+            "09123456789",
+            "+0912345678",
+            "++84912345678",
+            "8+4912345678",
+            "849",
+            "0",
+            "+",
+            "+1 415 555 0100"
+    })
+    void matchesTheRegexImplementation(String input) {
+        Identifier identifier = Identifier.parse(input);
+
+        assertThat(identifier.isEmail()).isEqualTo(Legacy.isEmail(input.trim()));
+        assertThat(identifier.getNormalized()).isEqualTo(Legacy.normalize(input));
+        assertThat(identifier.isValid()).isEqualTo(Legacy.isValid(input));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0912345678", "84912345678", "+84912345678", "+84 912 345 678"})
+    void localAndInternationalFormsShareOneNormalizedForm(String input) {
+        assertThat(Identifier.parse(input).getNormalized()).isEqualTo("+84912345678");
+    }
+
+    @Test
+    void blankInputIsInvalid() {
+        assertThat(Identifier.parse(null).isValid()).isFalse();
+        assertThat(Identifier.parse("   ").isValid()).isFalse();
+        assertThat(Legacy.isValid("   ")).isFalse();
+    }
+
+    /**
+     * The one intended difference: the old phone pattern ended in an empty alternative, so input without ASCII
+     * digits or '@' normalized to "" and matched it.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"abc", "---", "n/a", "０９１２３４５６７８"})
+    void inputWithoutAsciiDigitsIsNoLongerAPhone(String input) {
+        assertThat(Legacy.isValid(input)).isTrue();
+        assertThat(Identifier.parse(input).isValid()).isFalse();
+    }
+
+    /**
+     * EmailOrPhoneValidator as it was before Identifier.
+     */
+    private static final class Legacy {
+
+        private static final Pattern EMAIL_PATTERN = Pattern.compile(
+                "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$"
+        );
+
+        private static final Pattern PHONE_PATTERN = Pattern.compile(
+                "^(\\+84|84|0)(3[2-9]|5[689]|7[06-9]|8[1-689]|9[0-46-9])[0-9]{7}$|"
+        );
+
+        static boolean isValid(String s) {
+            if (s == null || s.trim().isEmpty()) {
+                return false;
+            }
+            String trimmed = s.trim();
+            if (isEmail(trimmed)) {
+                return EMAIL_PATTERN.matcher(trimmed).matches();
+            }
+            return PHONE_PATTERN.matcher(normalizePhone(trimmed)).matches();
+        }
+
+        static boolean isEmail(String value) {
+            return value != null && value.contains("@");
+        }
+
+        static String normalize(String value) {
+            if (value == null) return "";
+            String trimmed = value.trim();
+            return isEmail(trimmed) ? trimmed.toLowerCase(Locale.ROOT) : normalizePhone(trimmed);
+        }
+
+        static String normalizePhone(String phone) {
+            String cleaned = phone.replaceAll("[^+\\d]", "");
+            if (cleaned.startsWith("0")) {
+                cleaned = "+84" + cleaned.substring(1);
+            } else if (cleaned.startsWith("84") && !cleaned.startsWith("+84")) {
+                cleaned = "+" + cleaned;
+            }
+            return cleaned;
+        }
+    }
+}